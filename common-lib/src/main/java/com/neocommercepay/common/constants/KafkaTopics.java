@@ -9,6 +9,7 @@ public final class KafkaTopics {
     public static final String PRODUCT_UPDATED = "product.updated";
     public static final String PRODUCT_DELETED = "product.deleted";
     public static final String INVENTORY_DEPLETED = "inventory.depleted";
+    public static final String INVENTORY_SHORTFALL = "inventory.shortfall";
 
     public static final String ORDER_CREATED = "order.created";
     public static final String ORDER_UPDATED = "order.updated";
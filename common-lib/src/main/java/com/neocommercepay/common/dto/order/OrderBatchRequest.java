@@ -0,0 +1,28 @@
+package com.neocommercepay.common.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchRequest {
+    private Long userId;
+    private List<OrderItemRequest> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderItemRequest {
+        private String productId;
+        private Integer quantity;
+        private BigDecimal price;
+    }
+}
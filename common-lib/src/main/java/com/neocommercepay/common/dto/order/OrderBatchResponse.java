@@ -0,0 +1,29 @@
+package com.neocommercepay.common.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResponse {
+    private int created;
+    private int failed;
+    private List<OrderBatchResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderBatchResult {
+        private int index;
+        private boolean success;
+        private OrderResponse order;
+        private String error;
+    }
+}
@@ -0,0 +1,40 @@
+package com.neocommercepay.common.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatisticsResponse {
+    private Map<String, StatusStatistics> totals;
+    private List<HourlyStatistics> hourly;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatusStatistics {
+        private long count;
+        private BigDecimal revenue;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HourlyStatistics {
+        private LocalDateTime bucketStart;
+        private String status;
+        private long count;
+        private BigDecimal revenue;
+    }
+}
@@ -0,0 +1,21 @@
+package com.neocommercepay.common.dto.payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBalanceResponse {
+    private Long paymentId;
+    private BigDecimal charged;
+    private BigDecimal refunded;
+    private BigDecimal net;
+    private LocalDateTime updatedAt;
+}
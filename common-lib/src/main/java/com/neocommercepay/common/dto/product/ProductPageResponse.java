@@ -0,0 +1,19 @@
+package com.neocommercepay.common.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageResponse {
+    private List<ProductResponse> products;
+    private String nextCursor;
+    private boolean hasMore;
+    private Long totalCount;
+}
@@ -0,0 +1,21 @@
+package com.neocommercepay.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockShortfallEvent {
+    private Long orderId;
+    private List<String> productIds;
+    private String reason;
+    private LocalDateTime timestamp;
+    private String correlationId;
+}
@@ -3,15 +3,13 @@ package com.neocommercepay.common.util;
 import com.neocommercepay.common.constants.SecurityConstants;
 import org.slf4j.MDC;
 
-import java.util.UUID;
-
 public final class CorrelationIdUtil {
 
     private CorrelationIdUtil() {
     }
 
     public static String generate() {
-        return UUID.randomUUID().toString();
+        return IdGenerator.nextId();
     }
 
     public static void set(String correlationId) {
@@ -0,0 +1,81 @@
+package com.neocommercepay.common.util;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class IdGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long VERSION_7 = 0x7L << 12;
+    private static final long VARIANT_RFC4122 = 0x2L << 62;
+    private static final int NODE_SHIFT = 46;
+    private static final long RANDOM_MASK = (1L << NODE_SHIFT) - 1;
+    private static final long MAX_NODE = 0xFFFF;
+
+    private static final long NODE = resolveNode() << NODE_SHIFT;
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private IdGenerator() {
+    }
+
+    public static UUID nextUuid() {
+        long next;
+        long last;
+        do {
+            last = LAST.get();
+            next = Math.max(System.currentTimeMillis() << SEQUENCE_BITS, last + 1);
+        } while (!LAST.compareAndSet(last, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        long mostSignificant = (millis << 16) | VERSION_7 | sequence;
+        long leastSignificant = VARIANT_RFC4122 | NODE | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    public static String nextId() {
+        return nextUuid().toString();
+    }
+
+    public static long timestampMillis(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    private static long resolveNode() {
+        String configured = System.getenv("NODE_ID");
+        if (configured != null && !configured.isBlank()) {
+            return parseNode(configured.trim());
+        }
+
+        long seed = new SecureRandom().nextLong();
+        try {
+            seed ^= InetAddress.getLocalHost().getHostName().hashCode() * 0x9E3779B97F4A7C15L;
+        } catch (Exception e) {
+            seed ^= System.nanoTime();
+        }
+        seed ^= ManagementFactory.getRuntimeMXBean().getName().hashCode();
+        return (seed ^ (seed >>> 16) ^ (seed >>> 32) ^ (seed >>> 48)) & MAX_NODE;
+    }
+
+    private static long parseNode(String configured) {
+        long node;
+        try {
+            node = Long.parseLong(configured);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(invalidNode(configured), e);
+        }
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalStateException(invalidNode(configured));
+        }
+        return node;
+    }
+
+    private static String invalidNode(String configured) {
+        return "NODE_ID must be an integer between 0 and " + MAX_NODE + ", got '" + configured + "'";
+    }
+}
@@ -1,19 +1,28 @@
 package com.neocommercepay.order.controller;
 
+import com.neocommercepay.common.dto.order.OrderBatchRequest;
+import com.neocommercepay.common.dto.order.OrderBatchResponse;
+import com.neocommercepay.common.dto.order.OrderPageResponse;
 import com.neocommercepay.common.dto.order.OrderResponse;
+import com.neocommercepay.common.dto.order.OrderStatisticsResponse;
 import com.neocommercepay.order.entity.Order;
 import com.neocommercepay.order.entity.OrderItem;
 import com.neocommercepay.order.entity.OrderStatusHistory;
+import com.neocommercepay.order.service.OrderExportService;
 import com.neocommercepay.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -22,6 +31,7 @@ import java.util.stream.Collectors;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
 
     @PostMapping
     @Operation(summary = "Create order", description = "Create a new order")
@@ -29,26 +39,59 @@ public class OrderController {
             @RequestParam Long userId,
             @RequestBody List<OrderItem> items) {
         Order order = orderService.createOrder(userId, items);
-        OrderResponse response = mapToResponse(order);
+        OrderResponse response = orderService.mapToResponse(order);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create orders in bulk", description = "Create many orders in one batched request with per-order results")
+    public ResponseEntity<OrderBatchResponse> createOrders(@RequestBody List<OrderBatchRequest> requests) {
+        OrderBatchResponse response = orderService.createOrders(requests);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/statistics")
+    @Operation(summary = "Get order statistics", description = "Order counts and revenue per status, with optional hourly buckets")
+    public ResponseEntity<OrderStatisticsResponse> getOrderStatistics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderStatisticsResponse response = orderService.getOrderStatistics(from, to);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export orders", description = "Stream all orders in a status, optionally within a created_at range, as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") OrderExportService.Format format) {
+        orderExportService.validateRange(from, to);
+        StreamingResponseBody body = outputStream -> orderExportService.export(status, from, to, format, outputStream);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("orders-" + status.name().toLowerCase() + "." + format.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get order by ID", description = "Retrieve order details by ID")
     public ResponseEntity<OrderResponse> getOrder(@PathVariable Long id) {
-        Order order = orderService.getOrderById(id);
-        OrderResponse response = mapToResponse(order);
+        OrderResponse response = orderService.getOrderResponse(id);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get user orders", description = "Retrieve all orders for a user")
-    public ResponseEntity<List<OrderResponse>> getUserOrders(@PathVariable Long userId) {
-        List<Order> orders = orderService.getOrdersByUserId(userId);
-        List<OrderResponse> responses = orders.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    @Operation(summary = "Get user orders", description = "Retrieve a page of a user's orders, newest first, continuing from an optional cursor")
+    public ResponseEntity<OrderPageResponse> getUserOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        OrderPageResponse response = orderService.getOrdersByUserId(userId, cursor, size);
+        return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{id}/status")
@@ -57,7 +100,7 @@ public class OrderController {
             @PathVariable Long id,
             @RequestParam Order.OrderStatus status) {
         Order order = orderService.updateOrderStatus(id, status);
-        OrderResponse response = mapToResponse(order);
+        OrderResponse response = orderService.mapToResponse(order);
         return ResponseEntity.ok(response);
     }
 
@@ -67,7 +110,7 @@ public class OrderController {
             @PathVariable Long id,
             @RequestParam(required = false) String reason) {
         Order order = orderService.cancelOrder(id, reason);
-        OrderResponse response = mapToResponse(order);
+        OrderResponse response = orderService.mapToResponse(order);
         return ResponseEntity.ok(response);
     }
 
@@ -77,24 +120,4 @@ public class OrderController {
         List<OrderStatusHistory> history = orderService.getOrderHistory(id);
         return ResponseEntity.ok(history);
     }
-
-    private OrderResponse mapToResponse(Order order) {
-        List<OrderResponse.OrderItemResponse> itemResponses = order.getItems().stream()
-                .map(item -> OrderResponse.OrderItemResponse.builder()
-                        .id(item.getId())
-                        .productId(item.getProductId())
-                        .quantity(item.getQuantity())
-                        .price(item.getPrice())
-                        .build())
-                .collect(Collectors.toList());
-
-        return OrderResponse.builder()
-                .id(order.getId())
-                .userId(order.getUserId())
-                .totalAmount(order.getTotalAmount())
-                .status(order.getStatus().name())
-                .createdAt(order.getCreatedAt())
-                .items(itemResponses)
-                .build();
-    }
 }
@@ -0,0 +1,27 @@
+package com.neocommercepay.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_statistics_watermark")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatisticsWatermark {
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_created_at", nullable = false)
+    private LocalDateTime lastCreatedAt;
+
+    @Column(name = "last_order_id", nullable = false)
+    private Long lastOrderId;
+}
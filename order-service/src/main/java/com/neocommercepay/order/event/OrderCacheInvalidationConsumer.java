@@ -0,0 +1,45 @@
+package com.neocommercepay.order.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.common.constants.KafkaTopics;
+import com.neocommercepay.order.service.OrderReadCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderCacheInvalidationConsumer {
+
+    private final OrderReadCache orderReadCache;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @KafkaListener(topics = {KafkaTopics.ORDER_UPDATED, KafkaTopics.ORDER_CANCELLED},
+            groupId = "${order.cache.invalidation.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void consumeOrderChanged(String message,
+                                    @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+                                    Acknowledgment acknowledgment) {
+        try {
+            Long orderId = key != null ? Long.valueOf(key) : extractOrderId(message);
+            if (orderId != null) {
+                orderReadCache.invalidate(orderId);
+                log.debug("Invalidated cached order: {}", orderId);
+            }
+        } catch (Exception e) {
+            log.error("Error invalidating cached order", e);
+        }
+        acknowledgment.acknowledge();
+    }
+
+    private Long extractOrderId(String message) throws Exception {
+        JsonNode orderId = objectMapper.readTree(message).get("orderId");
+        return orderId == null || orderId.isNull() ? null : orderId.asLong();
+    }
+}
@@ -1,58 +1,60 @@
 package com.neocommercepay.order.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neocommercepay.common.constants.KafkaTopics;
 import com.neocommercepay.common.event.OrderCancelledEvent;
 import com.neocommercepay.common.event.OrderCreatedEvent;
 import com.neocommercepay.common.event.OrderUpdatedEvent;
+import com.neocommercepay.common.exception.BusinessException;
 import com.neocommercepay.common.util.CorrelationIdUtil;
 import com.neocommercepay.order.entity.Order;
+import com.neocommercepay.order.entity.OrderOutboxEvent;
+import com.neocommercepay.order.repository.OrderOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
 public class OrderEventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OrderOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
     public void publishOrderCreated(Order order) {
-        OrderCreatedEvent event = OrderCreatedEvent.builder()
-                .orderId(order.getId())
-                .userId(order.getUserId())
-                .totalAmount(order.getTotalAmount())
-                .status(order.getStatus().name())
-                .items(order.getItems().stream()
-                        .map(item -> OrderCreatedEvent.OrderItem.builder()
-                                .productId(item.getProductId())
-                                .quantity(item.getQuantity())
-                                .price(item.getPrice())
-                                .build())
-                        .collect(Collectors.toList()))
-                .timestamp(LocalDateTime.now())
-                .correlationId(CorrelationIdUtil.get())
-                .build();
+        enqueue(KafkaTopics.ORDER_CREATED, order.getId(), buildOrderCreatedEvent(order));
+        log.info("Queued OrderCreatedEvent for order: {}", order.getId());
+    }
 
-        kafkaTemplate.send(KafkaTopics.ORDER_CREATED, event);
-        log.info("Published OrderCreatedEvent for order: {}", order.getId());
+    public void publishOrdersCreated(List<Order> orders) {
+        List<OrderOutboxEvent> outboxEvents = orders.stream()
+                .map(order -> toOutboxEvent(KafkaTopics.ORDER_CREATED, order.getId(), buildOrderCreatedEvent(order)))
+                .collect(Collectors.toList());
+
+        outboxRepository.saveAll(outboxEvents);
+        log.info("Queued {} OrderCreatedEvents", outboxEvents.size());
     }
 
-    public void publishOrderUpdated(Order order, Order.OrderStatus oldStatus, Order.OrderStatus newStatus) {
+    public void publishOrderUpdated(Long orderId, Order.OrderStatus oldStatus, Order.OrderStatus newStatus) {
         OrderUpdatedEvent event = OrderUpdatedEvent.builder()
-                .orderId(order.getId())
+                .orderId(orderId)
                 .oldStatus(oldStatus.name())
                 .newStatus(newStatus.name())
                 .timestamp(LocalDateTime.now())
                 .correlationId(CorrelationIdUtil.get())
                 .build();
 
-        kafkaTemplate.send(KafkaTopics.ORDER_UPDATED, event);
-        log.info("Published OrderUpdatedEvent for order: {}", order.getId());
+        enqueue(KafkaTopics.ORDER_UPDATED, orderId, event);
+        log.info("Queued OrderUpdatedEvent for order: {}", orderId);
     }
 
     public void publishOrderCancelled(Long orderId, Long userId, String reason) {
@@ -64,7 +66,45 @@ public class OrderEventProducer {
                 .correlationId(CorrelationIdUtil.get())
                 .build();
 
-        kafkaTemplate.send(KafkaTopics.ORDER_CANCELLED, event);
-        log.info("Published OrderCancelledEvent for order: {}", orderId);
+        enqueue(KafkaTopics.ORDER_CANCELLED, orderId, event);
+        log.info("Queued OrderCancelledEvent for order: {}", orderId);
+    }
+
+    private OrderCreatedEvent buildOrderCreatedEvent(Order order) {
+        return OrderCreatedEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus().name())
+                .items(order.getItems().stream()
+                        .map(item -> OrderCreatedEvent.OrderItem.builder()
+                                .productId(item.getProductId())
+                                .quantity(item.getQuantity())
+                                .price(item.getPrice())
+                                .build())
+                        .collect(Collectors.toList()))
+                .timestamp(LocalDateTime.now())
+                .correlationId(CorrelationIdUtil.get())
+                .build();
+    }
+
+    private void enqueue(String topic, Long orderId, Object event) {
+        outboxRepository.save(toOutboxEvent(topic, orderId, event));
+    }
+
+    private OrderOutboxEvent toOutboxEvent(String topic, Long orderId, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Failed to serialize " + event.getClass().getSimpleName(), e);
+        }
+
+        return OrderOutboxEvent.builder()
+                .aggregateId(orderId)
+                .topic(topic)
+                .eventType(event.getClass().getName())
+                .payload(payload)
+                .build();
     }
 }
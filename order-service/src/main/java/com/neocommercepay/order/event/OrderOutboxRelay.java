@@ -0,0 +1,178 @@
+package com.neocommercepay.order.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.order.entity.OrderOutboxEvent;
+import com.neocommercepay.order.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class OrderOutboxRelay {
+
+    private static final long CLAIM_LOCK_KEY = 0x4F52_4445_524F_5554L;
+
+    private final OrderOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Class<?>> eventTypes = new ConcurrentHashMap<>();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    @Value("${order.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${order.outbox.relay.lease-ms:60000}")
+    private long leaseMs;
+
+    public OrderOutboxRelay(OrderOutboxRepository outboxRepository,
+                            KafkaTemplate<String, Object> kafkaTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.publishedCounter = meterRegistry.counter("order.outbox.published");
+        this.failedCounter = meterRegistry.counter("order.outbox.failed");
+        this.batchTimer = meterRegistry.timer("order.outbox.relay.batch");
+        Gauge.builder("order.outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest event still waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay.interval-ms:200}")
+    public void relay() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<OrderOutboxEvent> batch = transactionTemplate.execute(status ->
+                    outboxRepository.tryClaimLock(CLAIM_LOCK_KEY)
+                            ? outboxRepository.claimBatch(batchSize, leaseMs)
+                            : List.<OrderOutboxEvent>of());
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+
+            boolean complete = batchTimer.record(() -> relayBatch(batch));
+            if (!complete || batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        updateLag();
+    }
+
+    private boolean relayBatch(List<OrderOutboxEvent> batch) {
+        Map<Long, Deque<OrderOutboxEvent>> pendingByAggregate = new LinkedHashMap<>();
+        for (OrderOutboxEvent event : batch) {
+            pendingByAggregate.computeIfAbsent(event.getAggregateId(), id -> new ArrayDeque<>()).add(event);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> publishedIds = new ArrayList<>(batch.size());
+        while (!pendingByAggregate.isEmpty()) {
+            Map<OrderOutboxEvent, CompletableFuture<SendResult<String, Object>>> wave = new LinkedHashMap<>();
+            pendingByAggregate.values().forEach(events -> {
+                OrderOutboxEvent event = events.poll();
+                wave.put(event, send(event));
+            });
+
+            wave.forEach((event, send) -> {
+                if (awaitSend(event, send, deadline)) {
+                    publishedIds.add(event.getId());
+                } else {
+                    pendingByAggregate.remove(event.getAggregateId());
+                }
+            });
+            pendingByAggregate.values().removeIf(Deque::isEmpty);
+        }
+
+        Set<Long> unpublishedIds = new HashSet<>();
+        batch.forEach(event -> unpublishedIds.add(event.getId()));
+        publishedIds.forEach(unpublishedIds::remove);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.deleteAllByIdInBatch(publishedIds);
+            if (!unpublishedIds.isEmpty()) {
+                outboxRepository.releaseLease(unpublishedIds);
+            }
+        });
+        publishedCounter.increment(publishedIds.size());
+        failedCounter.increment(unpublishedIds.size());
+
+        log.debug("Relayed {} of {} outbox events", publishedIds.size(), batch.size());
+        return unpublishedIds.isEmpty();
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OrderOutboxEvent event) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), resolveType(event.getEventType()));
+            return kafkaTemplate.send(event.getTopic(), String.valueOf(event.getAggregateId()), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private boolean awaitSend(OrderOutboxEvent event, CompletableFuture<SendResult<String, Object>> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Failed to relay outbox event {} to {}", event.getId(), event.getTopic(), e);
+            return false;
+        }
+    }
+
+    private Class<?> resolveType(String eventType) {
+        return eventTypes.computeIfAbsent(eventType, type -> {
+            try {
+                return Class.forName(type);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Unknown outbox event type: " + type, e);
+            }
+        });
+    }
+
+    private void updateLag() {
+        long lag = outboxRepository.findFirstByOrderByIdAsc()
+                .map(OrderOutboxEvent::getCreatedAt)
+                .map(createdAt -> Duration.between(createdAt, LocalDateTime.now()).toMillis())
+                .orElse(0L);
+        lagMillis.set(Math.max(0, lag));
+    }
+}
@@ -0,0 +1,105 @@
+package com.neocommercepay.order.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.common.constants.KafkaTopics;
+import com.neocommercepay.common.event.PaymentCompletedEvent;
+import com.neocommercepay.common.event.PaymentFailedEvent;
+import com.neocommercepay.order.entity.Order;
+import com.neocommercepay.order.service.OrderService;
+import com.neocommercepay.order.service.PaymentOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "order.payment-events.batch.enabled", havingValue = "true")
+public class PaymentEventBatchConsumer {
+
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Counter recordsCounter;
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+
+    public PaymentEventBatchConsumer(OrderService orderService, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.recordsCounter = Counter.builder("order.payment_events.records")
+                .description("Payment outcome records applied by the batch listener")
+                .register(meterRegistry);
+        this.batchSizes = meterRegistry.summary("order.payment_events.batch.size");
+        this.batchTimer = meterRegistry.timer("order.payment_events.batch");
+    }
+
+    @KafkaListener(topics = {KafkaTopics.PAYMENT_COMPLETED, KafkaTopics.PAYMENT_FAILED},
+            groupId = "order-service",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            properties = "max.poll.records=${order.payment-events.batch.max-size:500}")
+    public void consumePaymentOutcomes(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        long start = System.nanoTime();
+        List<PaymentOutcome> outcomes = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, Object> record : records) {
+            try {
+                outcomes.add(toOutcome(record));
+            } catch (Exception e) {
+                log.error("Error parsing payment event from {} at offset {}", record.topic(), record.offset(), e);
+            }
+        }
+
+        try {
+            orderService.applyPaymentOutcomes(outcomes);
+        } catch (Exception e) {
+            log.error("Error applying batch of {} payment outcomes, retrying one by one", outcomes.size(), e);
+            outcomes.forEach(this::applySingle);
+        }
+
+        acknowledgment.acknowledge();
+
+        long elapsedNanos = System.nanoTime() - start;
+        batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        batchSizes.record(records.size());
+        recordsCounter.increment(records.size());
+        log.debug("Processed {} payment events in {} ms ({} records/s)", records.size(),
+                elapsedNanos / 1_000_000, elapsedNanos == 0 ? 0 : records.size() * 1_000_000_000L / elapsedNanos);
+    }
+
+    private PaymentOutcome toOutcome(ConsumerRecord<String, Object> record) throws Exception {
+        if (KafkaTopics.PAYMENT_COMPLETED.equals(record.topic())) {
+            PaymentCompletedEvent event = toEvent(record.value(), PaymentCompletedEvent.class);
+            return PaymentOutcome.completed(event.getOrderId());
+        }
+        PaymentFailedEvent event = toEvent(record.value(), PaymentFailedEvent.class);
+        return PaymentOutcome.failed(event.getOrderId(), event.getReason());
+    }
+
+    private <T> T toEvent(Object value, Class<T> type) throws Exception {
+        if (value instanceof String message) {
+            return objectMapper.readValue(message, type);
+        }
+        return objectMapper.convertValue(value, type);
+    }
+
+    private void applySingle(PaymentOutcome outcome) {
+        try {
+            if (outcome.completed()) {
+                orderService.updateOrderStatus(outcome.orderId(), Order.OrderStatus.PAID);
+            } else {
+                orderService.cancelOrder(outcome.orderId(), "Payment failed: " + outcome.reason());
+            }
+        } catch (Exception e) {
+            log.error("Error applying payment outcome for order: {}", outcome.orderId(), e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.neocommercepay.order.entity.Order;
 import com.neocommercepay.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Component;
 @Component
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnProperty(name = "order.payment-events.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class PaymentEventConsumer {
 
     private final OrderService orderService;
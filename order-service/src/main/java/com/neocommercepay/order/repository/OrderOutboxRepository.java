@@ -0,0 +1,33 @@
+package com.neocommercepay.order.repository;
+
+import com.neocommercepay.order.entity.OrderOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryClaimLock(@Param("key") long key);
+
+    @Query(value = "UPDATE order_outbox SET locked_until = now() + (:leaseMs * interval '1 millisecond') " +
+            "WHERE id IN (SELECT o.id FROM order_outbox o " +
+            "WHERE (o.locked_until IS NULL OR o.locked_until < now()) " +
+            "AND NOT EXISTS (SELECT 1 FROM order_outbox l WHERE l.aggregate_id = o.aggregate_id AND l.locked_until >= now()) " +
+            "ORDER BY o.id LIMIT :limit) " +
+            "RETURNING *", nativeQuery = true)
+    List<OrderOutboxEvent> claimBatch(@Param("limit") int limit, @Param("leaseMs") long leaseMs);
+
+    @Modifying
+    @Query(value = "UPDATE order_outbox SET locked_until = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int releaseLease(@Param("ids") Collection<Long> ids);
+
+    Optional<OrderOutboxEvent> findFirstByOrderByIdAsc();
+}
@@ -0,0 +1,15 @@
+package com.neocommercepay.order.repository;
+
+import com.neocommercepay.order.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface OrderStatusView {
+    Long getId();
+    Long getUserId();
+    Order.OrderStatus getStatus();
+    Long getVersion();
+    BigDecimal getTotalAmount();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,142 @@
+package com.neocommercepay.order.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.common.exception.BusinessException;
+import com.neocommercepay.order.entity.Order;
+import com.neocommercepay.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String CSV_HEADER = "id,user_id,status,total_amount,created_at\n";
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Counter rowsCounter;
+    private final Timer exportTimer;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.rowsCounter = meterRegistry.counter("order.export.rows");
+        this.exportTimer = meterRegistry.timer("order.export");
+    }
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new BusinessException("Export range 'to' must be after 'from'");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long export(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                       Format format, OutputStream outputStream) throws IOException {
+        LocalDateTime rangeFrom = from != null ? from : EARLIEST;
+        LocalDateTime rangeTo = to != null ? to : LocalDateTime.now();
+        long started = System.nanoTime();
+        long rows = 0;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.setRootValueSeparator(null);
+        json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        try (Stream<Order> orders = orderRepository.streamByStatusAndCreatedAtBetween(status, rangeFrom, rangeTo)) {
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                if (format == Format.CSV) {
+                    writeCsv(writer, order);
+                } else {
+                    writeJson(json, writer, order);
+                }
+                entityManager.detach(order);
+                rows++;
+            }
+        }
+        json.flush();
+        writer.flush();
+
+        long elapsedNanos = System.nanoTime() - started;
+        exportTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        rowsCounter.increment(rows);
+
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        log.info("Exported {} {} orders as {} in {} ms ({} rows/s)",
+                rows, status, format, elapsedMillis, rows * 1000 / elapsedMillis);
+        return rows;
+    }
+
+    private void writeCsv(Writer writer, Order order) throws IOException {
+        writer.write(String.valueOf(order.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(order.getUserId()));
+        writer.write(',');
+        writer.write(order.getStatus().name());
+        writer.write(',');
+        writer.write(order.getTotalAmount().toPlainString());
+        writer.write(',');
+        writer.write(order.getCreatedAt().toString());
+        writer.write('\n');
+    }
+
+    private void writeJson(JsonGenerator json, Writer writer, Order order) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", order.getId());
+        json.writeNumberField("userId", order.getUserId());
+        json.writeStringField("status", order.getStatus().name());
+        json.writeNumberField("totalAmount", order.getTotalAmount());
+        json.writeStringField("createdAt", order.getCreatedAt().toString());
+        json.writeEndObject();
+        json.flush();
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,52 @@
+package com.neocommercepay.order.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neocommercepay.common.dto.order.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class OrderReadCache {
+
+    private final Cache<Long, OrderResponse> cache;
+
+    public OrderReadCache(MeterRegistry meterRegistry,
+                          @Value("${order.cache.max-size:10000}") long maxSize,
+                          @Value("${order.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders");
+    }
+
+    public OrderResponse get(Long orderId, Function<Long, OrderResponse> loader) {
+        return cache.get(orderId, loader);
+    }
+
+    public void invalidate(Long orderId) {
+        cache.invalidate(orderId);
+    }
+
+    public void invalidateAfterCommit(Long orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(orderId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(orderId);
+            }
+        });
+    }
+}
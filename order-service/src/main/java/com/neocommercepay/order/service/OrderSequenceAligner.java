@@ -0,0 +1,42 @@
+package com.neocommercepay.order.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class OrderSequenceAligner {
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders", "orders_seq",
+            "order_items", "order_items_seq",
+            "order_status_history", "order_status_history_seq",
+            "order_outbox", "order_outbox_seq");
+
+    private static final String ALIGN =
+            "SELECT setval('%s', m.max_id) FROM (SELECT MAX(id) AS max_id FROM %s) m " +
+            "WHERE m.max_id IS NOT NULL AND m.max_id >= (SELECT last_value FROM %s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        SEQUENCES.forEach((table, sequence) -> {
+            Long aligned = jdbcTemplate.query(ALIGN.formatted(sequence, table, sequence),
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            if (aligned != null) {
+                log.info("Moved sequence {} past existing {} ids to {}", sequence, table, aligned);
+            }
+        });
+    }
+}
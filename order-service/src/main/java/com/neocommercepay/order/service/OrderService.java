@@ -1,5 +1,11 @@
 package com.neocommercepay.order.service;
 
+import com.neocommercepay.common.dto.order.OrderBatchRequest;
+import com.neocommercepay.common.dto.order.OrderBatchResponse;
+import com.neocommercepay.common.dto.order.OrderPageResponse;
+import com.neocommercepay.common.dto.order.OrderResponse;
+import com.neocommercepay.common.dto.order.OrderStatisticsResponse;
+import com.neocommercepay.common.exception.BusinessException;
 import com.neocommercepay.common.exception.NotFoundException;
 import com.neocommercepay.order.entity.Order;
 import com.neocommercepay.order.entity.OrderItem;
@@ -7,39 +13,72 @@ import com.neocommercepay.order.entity.OrderStatusHistory;
 import com.neocommercepay.order.event.OrderEventProducer;
 import com.neocommercepay.order.repository.OrderRepository;
 import com.neocommercepay.order.repository.OrderStatusHistoryRepository;
+import com.neocommercepay.order.repository.OrderStatusView;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderService {
 
+    private static final String CONDITIONAL_STATUS_UPDATE =
+            "UPDATE orders SET status = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String TRANSITION_STATUS =
+            "WITH previous AS (SELECT id, status, version FROM orders WHERE id = ? AND status IN (%s)) " +
+            "UPDATE orders o SET status = ?, version = o.version + 1 FROM previous p " +
+            "WHERE o.id = p.id AND o.version = p.version " +
+            "RETURNING o.id, o.user_id, p.status AS previous_status, p.version, o.total_amount, o.created_at";
+    private static final String UPDATES_METRIC = "order.status.updates";
+    private static final String CONFLICTS_METRIC = "order.status.conflicts";
+
     private final OrderRepository orderRepository;
     private final OrderStatusHistoryRepository statusHistoryRepository;
     private final OrderEventProducer orderEventProducer;
+    private final OrderReadCache orderReadCache;
+    private final OrderStatisticsProjection statisticsProjection;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
 
-    @Transactional
-    public Order createOrder(Long userId, List<OrderItem> items) {
-        BigDecimal totalAmount = items.stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Value("${order.batch.max-orders:5000}")
+    private int maxBatchOrders;
 
-        Order order = Order.builder()
-                .userId(userId)
-                .totalAmount(totalAmount)
-                .status(Order.OrderStatus.PENDING)
-                .items(items)
-                .build();
+    @Value("${order.batch.chunk-size:500}")
+    private int batchChunkSize;
 
-        items.forEach(item -> item.setOrder(order));
+    @Value("${order.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${order.pagination.max-page-size:100}")
+    private int maxPageSize;
 
-        Order savedOrder = orderRepository.save(order);
+    @Value("${order.status.update.max-attempts:3}")
+    private int maxStatusUpdateAttempts;
+
+    @Transactional
+    public Order createOrder(Long userId, List<OrderItem> items) {
+        Order savedOrder = orderRepository.save(buildOrder(userId, items));
 
         OrderStatusHistory history = OrderStatusHistory.builder()
                 .orderId(savedOrder.getId())
@@ -53,67 +92,356 @@ public class OrderService {
         return savedOrder;
     }
 
+    @Transactional
+    public OrderBatchResponse createOrders(List<OrderBatchRequest> requests) {
+        if (requests.size() > maxBatchOrders) {
+            throw new BusinessException("Batch exceeds maximum of " + maxBatchOrders + " orders");
+        }
+
+        OrderBatchResponse.OrderBatchResult[] results = new OrderBatchResponse.OrderBatchResult[requests.size()];
+        List<Order> orders = new ArrayList<>(requests.size());
+        List<Integer> orderIndexes = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            OrderBatchRequest request = requests.get(i);
+            String error = validateBatchRequest(request);
+            if (error != null) {
+                results[i] = OrderBatchResponse.OrderBatchResult.builder()
+                        .index(i)
+                        .success(false)
+                        .error(error)
+                        .build();
+                continue;
+            }
+
+            List<OrderItem> items = request.getItems().stream()
+                    .map(item -> OrderItem.builder()
+                            .productId(item.getProductId())
+                            .quantity(item.getQuantity())
+                            .price(item.getPrice())
+                            .build())
+                    .collect(Collectors.toList());
+            orders.add(buildOrder(request.getUserId(), items));
+            orderIndexes.add(i);
+        }
+
+        for (int from = 0; from < orders.size(); from += batchChunkSize) {
+            List<Order> chunk = orders.subList(from, Math.min(from + batchChunkSize, orders.size()));
+            orderRepository.saveAll(chunk);
+
+            List<OrderStatusHistory> histories = chunk.stream()
+                    .map(order -> OrderStatusHistory.builder()
+                            .orderId(order.getId())
+                            .newStatus(Order.OrderStatus.PENDING)
+                            .build())
+                    .collect(Collectors.toList());
+            statusHistoryRepository.saveAll(histories);
+            orderEventProducer.publishOrdersCreated(chunk);
+
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        for (int i = 0; i < orders.size(); i++) {
+            int index = orderIndexes.get(i);
+            results[index] = OrderBatchResponse.OrderBatchResult.builder()
+                    .index(index)
+                    .success(true)
+                    .order(mapToResponse(orders.get(i)))
+                    .build();
+        }
+
+        log.info("Batch created {} of {} orders", orders.size(), requests.size());
+        return OrderBatchResponse.builder()
+                .created(orders.size())
+                .failed(requests.size() - orders.size())
+                .results(List.of(results))
+                .build();
+    }
+
     public Order getOrderById(Long id) {
         return orderRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Order not found with id: " + id));
     }
 
-    public List<Order> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUserId(userId);
+    public OrderResponse getOrderResponse(Long id) {
+        return orderReadCache.get(id, orderId -> orderRepository.findWithItemsById(orderId)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new NotFoundException("Order not found with id: " + orderId)));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrdersByUserId(Long userId, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findFirstPageByUserId(userId, page);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            orders = orderRepository.findPageByUserIdBefore(userId, after.createdAt(), after.id(), page);
+        }
+
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+        if (!orders.isEmpty()) {
+            orderRepository.fetchItemsByIdIn(orders.stream().map(Order::getId).collect(Collectors.toList()));
+        }
+
+        return OrderPageResponse.builder()
+                .orders(orders.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? OrderCursor.of(orders.get(orders.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     public List<Order> getOrdersByStatus(Order.OrderStatus status) {
         return orderRepository.findByStatus(status);
     }
 
+    public OrderStatisticsResponse getOrderStatistics(LocalDateTime from, LocalDateTime to) {
+        return statisticsProjection.getStatistics(from, to);
+    }
+
     @Transactional
     public Order updateOrderStatus(Long id, Order.OrderStatus newStatus) {
-        Order order = getOrderById(id);
-        Order.OrderStatus oldStatus = order.getStatus();
+        OrderStatusView previous = transition(id, newStatus);
+        statusHistoryRepository.save(buildHistory(id, previous.getStatus(), newStatus));
 
-        order.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
+        orderEventProducer.publishOrderUpdated(id, previous.getStatus(), newStatus);
+        orderReadCache.invalidateAfterCommit(id);
+        statisticsProjection.recordTransition(previous.getCreatedAt(), previous.getTotalAmount(),
+                previous.getStatus(), newStatus);
+        log.info("Order {} status updated: {} -> {}", id, previous.getStatus(), newStatus);
 
-        OrderStatusHistory history = OrderStatusHistory.builder()
-                .orderId(order.getId())
-                .oldStatus(oldStatus)
-                .newStatus(newStatus)
-                .build();
-        statusHistoryRepository.save(history);
+        return getOrderById(id);
+    }
+
+    @Transactional
+    public Order cancelOrder(Long id, String reason) {
+        OrderStatusView previous = transition(id, Order.OrderStatus.CANCELLED);
+        statusHistoryRepository.save(buildHistory(id, previous.getStatus(), Order.OrderStatus.CANCELLED));
 
-        orderEventProducer.publishOrderUpdated(updatedOrder, oldStatus, newStatus);
-        log.info("Order {} status updated: {} -> {}", id, oldStatus, newStatus);
+        orderEventProducer.publishOrderCancelled(id, previous.getUserId(), reason);
+        orderReadCache.invalidateAfterCommit(id);
+        statisticsProjection.recordTransition(previous.getCreatedAt(), previous.getTotalAmount(),
+                previous.getStatus(), Order.OrderStatus.CANCELLED);
+        log.info("Order cancelled: {}", id);
 
-        return updatedOrder;
+        return getOrderById(id);
     }
 
     @Transactional
-    public Order cancelOrder(Long id, String reason) {
-        Order order = getOrderById(id);
+    public int applyPaymentOutcomes(List<PaymentOutcome> outcomes) {
+        Set<Long> orderIds = outcomes.stream()
+                .map(PaymentOutcome::orderId)
+                .collect(Collectors.toSet());
+        Map<Long, OrderStatusView> current = orderRepository.findStatusViewsByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(OrderStatusView::getId, Function.identity()));
+
+        Set<Long> touched = new HashSet<>();
+        List<PaymentOutcome> batched = new ArrayList<>(outcomes.size());
+        List<PaymentOutcome> deferred = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>(outcomes.size());
 
-        if (order.getStatus() == Order.OrderStatus.SHIPPED ||
-            order.getStatus() == Order.OrderStatus.DELIVERED) {
-            throw new IllegalStateException("Cannot cancel order in status: " + order.getStatus());
+        for (PaymentOutcome outcome : outcomes) {
+            OrderStatusView view = current.get(outcome.orderId());
+            if (view == null) {
+                log.warn("Skipping payment outcome for unknown order: {}", outcome.orderId());
+                continue;
+            }
+            if (!touched.add(view.getId())) {
+                deferred.add(outcome);
+                continue;
+            }
+
+            Order.OrderStatus target = targetStatus(outcome);
+            if (!OrderStateMachine.canTransition(view.getStatus(), target)) {
+                log.warn("Skipping payment outcome for order {}: cannot move from {} to {}",
+                        view.getId(), view.getStatus(), target);
+                continue;
+            }
+            updates.add(new Object[]{target.name(), view.getId(), view.getVersion()});
+            batched.add(outcome);
         }
 
-        Order.OrderStatus oldStatus = order.getStatus();
-        order.setStatus(Order.OrderStatus.CANCELLED);
-        Order cancelledOrder = orderRepository.save(order);
+        int[] counts = updates.isEmpty()
+                ? new int[0]
+                : jdbcTemplate.batchUpdate(CONDITIONAL_STATUS_UPDATE, updates);
 
-        OrderStatusHistory history = OrderStatusHistory.builder()
-                .orderId(order.getId())
-                .oldStatus(oldStatus)
-                .newStatus(Order.OrderStatus.CANCELLED)
-                .build();
-        statusHistoryRepository.save(history);
+        List<OrderStatusHistory> histories = new ArrayList<>(outcomes.size());
+        int applied = 0;
 
-        orderEventProducer.publishOrderCancelled(order.getId(), order.getUserId(), reason);
-        log.info("Order cancelled: {}", id);
+        for (int i = 0; i < batched.size(); i++) {
+            PaymentOutcome outcome = batched.get(i);
+            if (counts[i] == 0) {
+                meterRegistry.counter(CONFLICTS_METRIC).increment();
+                deferred.add(outcome);
+                continue;
+            }
+            OrderStatusView view = current.get(outcome.orderId());
+            histories.add(recordPaymentOutcome(outcome, view));
+            applied++;
+        }
+        meterRegistry.counter(UPDATES_METRIC).increment(batched.size());
+
+        for (PaymentOutcome outcome : deferred) {
+            try {
+                OrderStatusView previous = transition(outcome.orderId(), targetStatus(outcome));
+                histories.add(recordPaymentOutcome(outcome, previous));
+                applied++;
+            } catch (IllegalStateException e) {
+                log.warn("Skipping payment outcome: {}", e.getMessage());
+            }
+        }
 
-        return cancelledOrder;
+        statusHistoryRepository.saveAll(histories);
+        log.info("Applied {} of {} payment outcomes", applied, outcomes.size());
+        return applied;
     }
 
     public List<OrderStatusHistory> getOrderHistory(Long orderId) {
         return statusHistoryRepository.findByOrderId(orderId);
     }
+
+    public OrderResponse mapToResponse(Order order) {
+        List<OrderResponse.OrderItemResponse> itemResponses = order.getItems().stream()
+                .map(item -> OrderResponse.OrderItemResponse.builder()
+                        .id(item.getId())
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .price(item.getPrice())
+                        .build())
+                .collect(Collectors.toList());
+
+        return OrderResponse.builder()
+                .id(order.getId())
+                .userId(order.getUserId())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus().name())
+                .createdAt(order.getCreatedAt())
+                .items(itemResponses)
+                .build();
+    }
+
+    private OrderStatusView transition(Long id, Order.OrderStatus newStatus) {
+        OrderStatusView previous = transitionFromAllowed(id, newStatus);
+        for (int attempt = 1; previous == null; attempt++) {
+            OrderStatusView current = orderRepository.findStatusViewById(id)
+                    .orElseThrow(() -> new NotFoundException("Order not found with id: " + id));
+            OrderStateMachine.checkTransition(id, current.getStatus(), newStatus);
+
+            meterRegistry.counter(CONFLICTS_METRIC).increment();
+            if (attempt >= maxStatusUpdateAttempts) {
+                meterRegistry.counter("order.status.conflicts.exhausted").increment();
+                throw new OptimisticLockingFailureException("Order " + id + " was modified concurrently");
+            }
+            log.debug("Version conflict updating order {} (attempt {})", id, attempt);
+
+            meterRegistry.counter(UPDATES_METRIC).increment();
+            if (jdbcTemplate.update(CONDITIONAL_STATUS_UPDATE, newStatus.name(), id, current.getVersion()) == 1) {
+                previous = current;
+            }
+        }
+        entityManager.detach(entityManager.getReference(Order.class, id));
+        return previous;
+    }
+
+    private OrderStatusView transitionFromAllowed(Long id, Order.OrderStatus newStatus) {
+        List<Order.OrderStatus> predecessors = OrderStateMachine.predecessorsOf(newStatus);
+        List<Object> args = new ArrayList<>(predecessors.size() + 2);
+        args.add(id);
+        predecessors.forEach(status -> args.add(status.name()));
+        args.add(newStatus.name());
+
+        meterRegistry.counter(UPDATES_METRIC).increment();
+        List<OrderStatusView> previous = predecessors.isEmpty() ? List.of() : jdbcTemplate.query(
+                String.format(TRANSITION_STATUS, String.join(", ", Collections.nCopies(predecessors.size(), "?"))),
+                (rs, rowNum) -> new StatusChange(
+                        rs.getLong("id"),
+                        rs.getObject("user_id", Long.class),
+                        Order.OrderStatus.valueOf(rs.getString("previous_status")),
+                        rs.getLong("version"),
+                        rs.getBigDecimal("total_amount"),
+                        rs.getObject("created_at", LocalDateTime.class)),
+                args.toArray());
+        return previous.isEmpty() ? null : previous.get(0);
+    }
+
+    private OrderStatusHistory recordPaymentOutcome(PaymentOutcome outcome, OrderStatusView previous) {
+        Order.OrderStatus target = targetStatus(outcome);
+        if (outcome.completed()) {
+            orderEventProducer.publishOrderUpdated(previous.getId(), previous.getStatus(), target);
+        } else {
+            orderEventProducer.publishOrderCancelled(previous.getId(), previous.getUserId(),
+                    "Payment failed: " + outcome.reason());
+        }
+        orderReadCache.invalidateAfterCommit(previous.getId());
+        statisticsProjection.recordTransition(previous.getCreatedAt(), previous.getTotalAmount(),
+                previous.getStatus(), target);
+        return buildHistory(previous.getId(), previous.getStatus(), target);
+    }
+
+    private Order.OrderStatus targetStatus(PaymentOutcome outcome) {
+        return outcome.completed() ? Order.OrderStatus.PAID : Order.OrderStatus.CANCELLED;
+    }
+
+    private OrderStatusHistory buildHistory(Long orderId, Order.OrderStatus oldStatus, Order.OrderStatus newStatus) {
+        return OrderStatusHistory.builder()
+                .orderId(orderId)
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .build();
+    }
+
+    private Order buildOrder(Long userId, List<OrderItem> items) {
+        BigDecimal totalAmount = items.stream()
+                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        Order order = Order.builder()
+                .userId(userId)
+                .totalAmount(totalAmount)
+                .status(Order.OrderStatus.PENDING)
+                .items(items)
+                .build();
+
+        items.forEach(item -> item.setOrder(order));
+        return order;
+    }
+
+    private String validateBatchRequest(OrderBatchRequest request) {
+        if (request == null || request.getUserId() == null) {
+            return "userId is required";
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return "Order must contain at least one item";
+        }
+        for (OrderBatchRequest.OrderItemRequest item : request.getItems()) {
+            if (item.getProductId() == null || item.getProductId().isBlank()) {
+                return "productId is required";
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                return "Quantity must be positive for product: " + item.getProductId();
+            }
+            if (item.getPrice() == null || item.getPrice().signum() < 0) {
+                return "Price must be non-negative for product: " + item.getProductId();
+            }
+        }
+        return null;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class StatusChange implements OrderStatusView {
+        private final Long id;
+        private final Long userId;
+        private final Order.OrderStatus status;
+        private final Long version;
+        private final BigDecimal totalAmount;
+        private final LocalDateTime createdAt;
+    }
 }
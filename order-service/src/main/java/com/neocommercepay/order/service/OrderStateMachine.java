@@ -0,0 +1,51 @@
+package com.neocommercepay.order.service;
+
+import com.neocommercepay.order.entity.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class OrderStateMachine {
+
+    private static final int[] TRANSITIONS = new int[Order.OrderStatus.values().length];
+
+    static {
+        allow(Order.OrderStatus.PENDING,
+                Order.OrderStatus.PAYMENT_INITIATED, Order.OrderStatus.PAID, Order.OrderStatus.CANCELLED);
+        allow(Order.OrderStatus.PAYMENT_INITIATED,
+                Order.OrderStatus.PAID, Order.OrderStatus.CANCELLED);
+        allow(Order.OrderStatus.PAID,
+                Order.OrderStatus.SHIPPED, Order.OrderStatus.CANCELLED);
+        allow(Order.OrderStatus.SHIPPED,
+                Order.OrderStatus.DELIVERED);
+    }
+
+    private OrderStateMachine() {
+    }
+
+    public static boolean canTransition(Order.OrderStatus from, Order.OrderStatus to) {
+        return (TRANSITIONS[from.ordinal()] & (1 << to.ordinal())) != 0;
+    }
+
+    public static List<Order.OrderStatus> predecessorsOf(Order.OrderStatus to) {
+        List<Order.OrderStatus> predecessors = new ArrayList<>();
+        for (Order.OrderStatus from : Order.OrderStatus.values()) {
+            if (canTransition(from, to)) {
+                predecessors.add(from);
+            }
+        }
+        return predecessors;
+    }
+
+    public static void checkTransition(Long orderId, Order.OrderStatus from, Order.OrderStatus to) {
+        if (!canTransition(from, to)) {
+            throw new IllegalStateException("Cannot move order " + orderId + " from " + from + " to " + to);
+        }
+    }
+
+    private static void allow(Order.OrderStatus from, Order.OrderStatus... targets) {
+        for (Order.OrderStatus to : targets) {
+            TRANSITIONS[from.ordinal()] |= 1 << to.ordinal();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.neocommercepay.order.service;
+
+import com.neocommercepay.common.dto.order.OrderStatisticsResponse;
+import com.neocommercepay.order.entity.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class OrderStatisticsProjection {
+
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private static final String RECORD_WATERMARK =
+            "INSERT INTO order_statistics_watermark (id, last_created_at, last_order_id) " +
+            "SELECT 1, COALESCE(MAX(created_at), TIMESTAMP '1970-01-01'), COALESCE(MAX(id), 0) FROM orders " +
+            "WHERE created_at < ? " +
+            "ON CONFLICT (id) DO NOTHING";
+
+    private static final String SEED_TO_WATERMARK =
+            "INSERT INTO order_statistics (bucket_start, status, order_count, revenue, updated_at) " +
+            "SELECT date_trunc('hour', o.created_at), o.status, count(*), sum(o.total_amount), now() " +
+            "FROM orders o, order_statistics_watermark w " +
+            "WHERE w.id = 1 AND (o.created_at, o.id) <= (w.last_created_at, w.last_order_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM order_statistics) " +
+            "GROUP BY date_trunc('hour', o.created_at), o.status " +
+            "ON CONFLICT (bucket_start, status) DO NOTHING";
+
+    private static final String CATCH_UP_CREATED =
+            "WITH mark AS (" +
+            "SELECT last_created_at, last_order_id FROM order_statistics_watermark WHERE id = 1 FOR UPDATE), " +
+            "batch AS (" +
+            "SELECT o.id, o.created_at, o.total_amount FROM orders o, mark m " +
+            "WHERE (o.created_at, o.id) > (m.last_created_at, m.last_order_id) AND o.created_at < ? " +
+            "ORDER BY o.created_at, o.id LIMIT ?), " +
+            "counted AS (" +
+            "INSERT INTO order_statistics (bucket_start, status, order_count, revenue, updated_at) " +
+            "SELECT date_trunc('hour', created_at), 'PENDING', count(*), sum(total_amount), now() FROM batch " +
+            "GROUP BY date_trunc('hour', created_at) " +
+            "ON CONFLICT (bucket_start, status) DO UPDATE SET " +
+            "order_count = order_statistics.order_count + EXCLUDED.order_count, " +
+            "revenue = order_statistics.revenue + EXCLUDED.revenue, " +
+            "updated_at = EXCLUDED.updated_at) " +
+            "UPDATE order_statistics_watermark w SET last_created_at = b.created_at, last_order_id = b.id " +
+            "FROM (SELECT created_at, id FROM batch ORDER BY created_at DESC, id DESC LIMIT 1) b " +
+            "WHERE w.id = 1 " +
+            "RETURNING (SELECT count(*) FROM batch)";
+
+    private static final String UPSERT_DELTA =
+            "INSERT INTO order_statistics (bucket_start, status, order_count, revenue, updated_at) " +
+            "VALUES (?, ?, ?, ?, now()) " +
+            "ON CONFLICT (bucket_start, status) DO UPDATE SET " +
+            "order_count = order_statistics.order_count + EXCLUDED.order_count, " +
+            "revenue = order_statistics.revenue + EXCLUDED.revenue, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long retentionHours;
+    private final long catchUpLagSeconds;
+    private final int catchUpBatchSize;
+
+    private final long[] statusCounts = new long[STATUSES.length];
+    private final BigDecimal[] statusRevenue = zeroRevenue();
+    private final NavigableMap<LocalDateTime, Bucket> buckets = new TreeMap<>();
+    private NavigableMap<LocalDateTime, Bucket> pending = new TreeMap<>();
+    private volatile boolean initialized;
+
+    public OrderStatisticsProjection(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${order.statistics.retention-hours:720}") long retentionHours,
+                                     @Value("${order.statistics.catch-up-lag-seconds:60}") long catchUpLagSeconds,
+                                     @Value("${order.statistics.catch-up-batch-size:5000}") int catchUpBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionHours = retentionHours;
+        this.catchUpLagSeconds = catchUpLagSeconds;
+        this.catchUpBatchSize = catchUpBatchSize;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jdbcTemplate.update(RECORD_WATERMARK, catchUpCutoff()) == 1) {
+                int seeded = jdbcTemplate.update(SEED_TO_WATERMARK);
+                log.info("Seeded order statistics with {} buckets up to the recorded watermark", seeded);
+            }
+        });
+        catchUp();
+        reload();
+        initialized = true;
+    }
+
+    public void recordTransition(LocalDateTime createdAt, BigDecimal amount,
+                                 Order.OrderStatus from, Order.OrderStatus to) {
+        LocalDateTime bucket = hourOf(createdAt);
+        afterCommit(() -> {
+            synchronized (this) {
+                apply(bucket, from, -1, amount.negate());
+                apply(bucket, to, 1, amount);
+            }
+        });
+    }
+
+    public synchronized OrderStatisticsResponse getStatistics(LocalDateTime from, LocalDateTime to) {
+        Map<String, OrderStatisticsResponse.StatusStatistics> totals = new LinkedHashMap<>();
+        for (Order.OrderStatus status : STATUSES) {
+            totals.put(status.name(), OrderStatisticsResponse.StatusStatistics.builder()
+                    .count(statusCounts[status.ordinal()])
+                    .revenue(statusRevenue[status.ordinal()])
+                    .build());
+        }
+
+        List<OrderStatisticsResponse.HourlyStatistics> hourly = new ArrayList<>();
+        if (from != null && to != null && to.isAfter(from)) {
+            for (Map.Entry<LocalDateTime, Bucket> entry : buckets.subMap(hourOf(from), true, to, false).entrySet()) {
+                Bucket bucket = entry.getValue();
+                for (Order.OrderStatus status : STATUSES) {
+                    if (bucket.counts[status.ordinal()] != 0) {
+                        hourly.add(OrderStatisticsResponse.HourlyStatistics.builder()
+                                .bucketStart(entry.getKey())
+                                .status(status.name())
+                                .count(bucket.counts[status.ordinal()])
+                                .revenue(bucket.revenue[status.ordinal()])
+                                .build());
+                    }
+                }
+            }
+        }
+
+        return OrderStatisticsResponse.builder()
+                .totals(totals)
+                .hourly(hourly)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${order.statistics.checkpoint-interval-ms:10000}",
+            initialDelayString = "${order.statistics.checkpoint-interval-ms:10000}")
+    public void checkpoint() {
+        if (!initialized) {
+            return;
+        }
+
+        NavigableMap<LocalDateTime, Bucket> drained;
+        synchronized (this) {
+            drained = pending;
+            pending = new TreeMap<>();
+        }
+
+        if (!drained.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_DELTA, toUpsertArgs(drained));
+            } catch (DataAccessException e) {
+                log.error("Failed to checkpoint order statistics, will retry", e);
+                synchronized (this) {
+                    drained.forEach((bucketStart, bucket) -> mergeInto(pending, bucketStart, bucket));
+                }
+                return;
+            }
+        }
+
+        try {
+            catchUp();
+        } catch (DataAccessException e) {
+            log.error("Failed to count newly created orders, will retry", e);
+        }
+        reload();
+    }
+
+    @PreDestroy
+    public void flush() {
+        checkpoint();
+    }
+
+    private void catchUp() {
+        long counted;
+        long total = 0;
+        do {
+            List<Long> batch = jdbcTemplate.queryForList(CATCH_UP_CREATED, Long.class, catchUpCutoff(), catchUpBatchSize);
+            counted = batch.isEmpty() ? 0 : batch.get(0);
+            total += counted;
+        } while (counted == catchUpBatchSize);
+        if (total > 0) {
+            log.debug("Counted {} newly created orders past the statistics watermark", total);
+        }
+    }
+
+    private LocalDateTime catchUpCutoff() {
+        return LocalDateTime.now().minusSeconds(catchUpLagSeconds);
+    }
+
+    private void reload() {
+        LocalDateTime since = hourOf(LocalDateTime.now()).minusHours(retentionHours);
+        NavigableMap<LocalDateTime, Bucket> loadedBuckets = new TreeMap<>();
+        jdbcTemplate.query("SELECT bucket_start, status, order_count, revenue FROM order_statistics WHERE bucket_start >= ?",
+                rs -> {
+                    Bucket bucket = loadedBuckets.computeIfAbsent(
+                            rs.getObject("bucket_start", LocalDateTime.class), key -> new Bucket());
+                    int index = Order.OrderStatus.valueOf(rs.getString("status")).ordinal();
+                    bucket.counts[index] = rs.getLong("order_count");
+                    bucket.revenue[index] = rs.getBigDecimal("revenue");
+                }, since);
+
+        Map<Order.OrderStatus, Object[]> loadedTotals = new EnumMap<>(Order.OrderStatus.class);
+        jdbcTemplate.query("SELECT status, SUM(order_count) AS order_count, SUM(revenue) AS revenue " +
+                        "FROM order_statistics GROUP BY status",
+                rs -> {
+                    loadedTotals.put(Order.OrderStatus.valueOf(rs.getString("status")),
+                            new Object[]{rs.getLong("order_count"), rs.getBigDecimal("revenue")});
+                });
+
+        synchronized (this) {
+            Arrays.fill(statusCounts, 0);
+            Arrays.fill(statusRevenue, BigDecimal.ZERO);
+            loadedTotals.forEach((status, row) -> {
+                statusCounts[status.ordinal()] = (Long) row[0];
+                statusRevenue[status.ordinal()] = (BigDecimal) row[1];
+            });
+            buckets.clear();
+            buckets.putAll(loadedBuckets);
+
+            pending.forEach((bucketStart, bucket) -> {
+                for (Order.OrderStatus status : STATUSES) {
+                    int index = status.ordinal();
+                    statusCounts[index] += bucket.counts[index];
+                    statusRevenue[index] = statusRevenue[index].add(bucket.revenue[index]);
+                }
+                mergeInto(buckets, bucketStart, bucket);
+            });
+        }
+    }
+
+    private void apply(LocalDateTime bucketStart, Order.OrderStatus status, long count, BigDecimal revenue) {
+        int index = status.ordinal();
+        statusCounts[index] += count;
+        statusRevenue[index] = statusRevenue[index].add(revenue);
+        buckets.computeIfAbsent(bucketStart, key -> new Bucket()).add(index, count, revenue);
+        pending.computeIfAbsent(bucketStart, key -> new Bucket()).add(index, count, revenue);
+    }
+
+    private List<Object[]> toUpsertArgs(NavigableMap<LocalDateTime, Bucket> drained) {
+        List<Object[]> args = new ArrayList<>();
+        drained.forEach((bucketStart, bucket) -> {
+            for (Order.OrderStatus status : STATUSES) {
+                int index = status.ordinal();
+                if (bucket.counts[index] != 0 || bucket.revenue[index].signum() != 0) {
+                    args.add(new Object[]{bucketStart, status.name(), bucket.counts[index], bucket.revenue[index]});
+                }
+            }
+        });
+        return args;
+    }
+
+    private static void mergeInto(NavigableMap<LocalDateTime, Bucket> target, LocalDateTime bucketStart, Bucket source) {
+        Bucket bucket = target.computeIfAbsent(bucketStart, key -> new Bucket());
+        for (int i = 0; i < STATUSES.length; i++) {
+            bucket.add(i, source.counts[i], source.revenue[i]);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static LocalDateTime hourOf(LocalDateTime timestamp) {
+        return (timestamp != null ? timestamp : LocalDateTime.now()).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static BigDecimal[] zeroRevenue() {
+        BigDecimal[] revenue = new BigDecimal[STATUSES.length];
+        Arrays.fill(revenue, BigDecimal.ZERO);
+        return revenue;
+    }
+
+    private static final class Bucket {
+        private final long[] counts = new long[STATUSES.length];
+        private final BigDecimal[] revenue = zeroRevenue();
+
+        private void add(int index, long count, BigDecimal amount) {
+            counts[index] += count;
+            revenue[index] = revenue[index].add(amount);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.neocommercepay.order.service;
+
+public record PaymentOutcome(Long orderId, boolean completed, String reason) {
+
+    public static PaymentOutcome completed(Long orderId) {
+        return new PaymentOutcome(orderId, true, null);
+    }
+
+    public static PaymentOutcome failed(Long orderId, String reason) {
+        return new PaymentOutcome(orderId, false, reason);
+    }
+}
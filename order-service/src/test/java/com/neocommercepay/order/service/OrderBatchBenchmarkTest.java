@@ -0,0 +1,112 @@
+package com.neocommercepay.order.service;
+
+import com.neocommercepay.common.dto.order.OrderBatchRequest;
+import com.neocommercepay.common.dto.order.OrderBatchResponse;
+import com.neocommercepay.order.entity.OrderItem;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.neocommercepay=INFO"
+})
+class OrderBatchBenchmarkTest {
+
+    private static final int ORDERS = 5_000;
+    private static final int WARMUP_ORDERS = 500;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final double TARGET_SPEEDUP = 10.0;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    private static final KafkaContainer KAFKA = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"));
+
+    @Autowired
+    private OrderService orderService;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.kafka.bootstrap-servers", KAFKA::getBootstrapServers);
+    }
+
+    @Test
+    void batchCreationMeetsTheThroughputTargetOverSingleOrders() {
+        createSingly(WARMUP_ORDERS);
+        createInBatch(WARMUP_ORDERS);
+
+        long singleNanos = createSingly(ORDERS);
+        long batchNanos = createInBatch(ORDERS);
+        double speedup = (double) singleNanos / batchNanos;
+
+        log.info("createOrder:  {} orders in {} ms ({} orders/s)", ORDERS,
+                TimeUnit.NANOSECONDS.toMillis(singleNanos), Math.round(ORDERS * 1e9 / singleNanos));
+        log.info("createOrders: {} orders in {} ms ({} orders/s), {}x the single-order path", ORDERS,
+                TimeUnit.NANOSECONDS.toMillis(batchNanos), Math.round(ORDERS * 1e9 / batchNanos),
+                Math.round(speedup * 10) / 10.0);
+
+        assertThat(speedup).isGreaterThanOrEqualTo(TARGET_SPEEDUP);
+    }
+
+    private long createSingly(int orders) {
+        long started = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            List<OrderItem> items = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int item = 0; item < ITEMS_PER_ORDER; item++) {
+                items.add(OrderItem.builder()
+                        .productId("product-" + item)
+                        .quantity(1)
+                        .price(BigDecimal.TEN)
+                        .build());
+            }
+            orderService.createOrder((long) i, items);
+        }
+        return System.nanoTime() - started;
+    }
+
+    private long createInBatch(int orders) {
+        List<OrderBatchRequest> requests = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            List<OrderBatchRequest.OrderItemRequest> items = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int item = 0; item < ITEMS_PER_ORDER; item++) {
+                items.add(OrderBatchRequest.OrderItemRequest.builder()
+                        .productId("product-" + item)
+                        .quantity(1)
+                        .price(BigDecimal.TEN)
+                        .build());
+            }
+            requests.add(OrderBatchRequest.builder().userId((long) i).items(items).build());
+        }
+
+        long started = System.nanoTime();
+        OrderBatchResponse response = orderService.createOrders(requests);
+        long elapsed = System.nanoTime() - started;
+
+        assertThat(response.getCreated()).isEqualTo(orders);
+        return elapsed;
+    }
+}
@@ -0,0 +1,54 @@
+package com.neocommercepay.payment.config;
+
+import com.neocommercepay.payment.gateway.MockPaymentProcessorGateway;
+import com.neocommercepay.payment.gateway.PaymentProcessorGateway;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class PaymentProcessorConfig {
+
+    @Value("${payment.processor.max-concurrency:50}")
+    private int maxConcurrency;
+
+    @Bean
+    public Semaphore paymentProcessorPermits(MeterRegistry meterRegistry) {
+        Semaphore permits = new Semaphore(maxConcurrency, true);
+        Gauge.builder("payment.processor.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free slots for in-flight payment processor calls")
+                .register(meterRegistry);
+        return permits;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService paymentOutcomeExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(maxConcurrency),
+                new CustomizableThreadFactory("payment-outcome-"), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(PaymentProcessorGateway.class)
+    public MockPaymentProcessorGateway mockPaymentProcessorGateway(
+            @Value("${payment.processor.mock.latency-ms:1000}") long latencyMs,
+            @Value("${payment.processor.mock.decline-rate:0.1}") double declineRate) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(maxConcurrency),
+                new CustomizableThreadFactory("payment-processor-"), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return new MockPaymentProcessorGateway(executor, latencyMs, declineRate);
+    }
+}
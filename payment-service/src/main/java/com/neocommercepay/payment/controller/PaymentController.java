@@ -1,15 +1,19 @@
 package com.neocommercepay.payment.controller;
 
+import com.neocommercepay.common.dto.payment.PaymentBalanceResponse;
 import com.neocommercepay.common.dto.payment.PaymentResponse;
 import com.neocommercepay.payment.entity.Payment;
+import com.neocommercepay.payment.entity.PaymentBalance;
 import com.neocommercepay.payment.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -19,6 +23,9 @@ public class PaymentController {
 
     private final PaymentService paymentService;
 
+    @Value("${payment.status.long-poll.max-wait-ms:30000}")
+    private long maxWaitMs;
+
     @PostMapping("/initiate")
     @Operation(summary = "Initiate payment", description = "Initiate payment for an order")
     public ResponseEntity<PaymentResponse> initiatePayment(
@@ -32,10 +39,9 @@ public class PaymentController {
 
     @PostMapping("/{id}/process")
     @Operation(summary = "Process payment", description = "Process an initiated payment")
-    public ResponseEntity<PaymentResponse> processPayment(@PathVariable Long id) {
-        Payment payment = paymentService.processPayment(id);
-        PaymentResponse response = mapToResponse(payment);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<PaymentResponse>> processPayment(@PathVariable Long id) {
+        return paymentService.processPayment(id)
+                .thenApply(payment -> ResponseEntity.ok(mapToResponse(payment)));
     }
 
     @GetMapping("/{id}/status")
@@ -46,6 +52,34 @@ public class PaymentController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/status/wait")
+    @Operation(summary = "Wait for payment status change",
+            description = "Long-poll: responds as soon as the payment leaves knownStatus, or with 204 when the wait times out")
+    public CompletableFuture<ResponseEntity<PaymentResponse>> awaitPaymentStatus(
+            @PathVariable Long id,
+            @RequestParam(required = false) Payment.PaymentStatus knownStatus,
+            @RequestParam(required = false) Long timeoutMs) {
+        long timeout = Math.min(timeoutMs != null ? timeoutMs : maxWaitMs, maxWaitMs);
+        return paymentService.awaitStatusChange(id, knownStatus, timeout)
+                .thenApply(payment -> payment
+                        .map(changed -> ResponseEntity.ok(mapToResponse(changed)))
+                        .orElseGet(() -> ResponseEntity.noContent().build()));
+    }
+
+    @GetMapping("/{id}/balance")
+    @Operation(summary = "Get payment balance", description = "Retrieve the charged, refunded and net ledger balance of a payment")
+    public ResponseEntity<PaymentBalanceResponse> getPaymentBalance(@PathVariable Long id) {
+        PaymentBalance balance = paymentService.getPaymentBalance(id);
+        PaymentBalanceResponse response = PaymentBalanceResponse.builder()
+                .paymentId(balance.getPaymentId())
+                .charged(balance.getCharged())
+                .refunded(balance.getRefunded())
+                .net(balance.getNet())
+                .updatedAt(balance.getUpdatedAt())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{id}/refund")
     @Operation(summary = "Refund payment", description = "Refund a completed payment")
     public ResponseEntity<PaymentResponse> refundPayment(
@@ -0,0 +1,65 @@
+package com.neocommercepay.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_entries_payment_id", columnList = "payment_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entries_seq")
+    @SequenceGenerator(name = "ledger_entries_seq", sequenceName = "ledger_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(name = "entry_group", nullable = false)
+    private String entryGroup;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Account account;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Direction direction;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Transaction.TransactionType transactionType;
+
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Account {
+        CUSTOMER, MERCHANT
+    }
+
+    public enum Direction {
+        DEBIT, CREDIT
+    }
+}
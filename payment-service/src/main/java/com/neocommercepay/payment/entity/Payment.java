@@ -11,7 +11,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_status_id", columnList = "status, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -42,6 +44,12 @@ public class Payment {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
     public enum PaymentStatus {
         INITIATED, PROCESSING, COMPLETED, FAILED, REFUNDED
     }
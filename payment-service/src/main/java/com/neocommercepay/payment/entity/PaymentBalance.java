@@ -0,0 +1,36 @@
+package com.neocommercepay.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "payment_balances")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBalance {
+
+    @Id
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    @Column(nullable = false)
+    private BigDecimal charged;
+
+    @Column(nullable = false)
+    private BigDecimal refunded;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public BigDecimal getNet() {
+        return charged.subtract(refunded);
+    }
+}
@@ -0,0 +1,86 @@
+package com.neocommercepay.payment.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.common.constants.KafkaTopics;
+import com.neocommercepay.common.event.OrderCreatedEvent;
+import com.neocommercepay.payment.service.PaymentInitiation;
+import com.neocommercepay.payment.service.PaymentService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "payment.order-events.batch.enabled", havingValue = "true")
+public class OrderCreatedEventBatchConsumer {
+
+    private final PaymentService paymentService;
+    private final RetryTemplate retryTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+
+    public OrderCreatedEventBatchConsumer(PaymentService paymentService,
+                                          RetryTemplate retryTemplate,
+                                          MeterRegistry meterRegistry) {
+        this.paymentService = paymentService;
+        this.retryTemplate = retryTemplate;
+        this.batchSizes = meterRegistry.summary("payment.order_events.batch.size");
+        this.batchTimer = meterRegistry.timer("payment.order_events.batch");
+    }
+
+    @KafkaListener(topics = KafkaTopics.ORDER_CREATED,
+            groupId = "payment-service",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            properties = "max.poll.records=${payment.order-events.batch.max-size:500}")
+    public void consumeOrderCreated(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        long start = System.nanoTime();
+        List<PaymentInitiation> initiations = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, Object> record : records) {
+            try {
+                OrderCreatedEvent event = toEvent(record.value());
+                initiations.add(PaymentInitiation.forOrder(event.getOrderId(), event.getTotalAmount()));
+            } catch (Exception e) {
+                log.error("Error parsing OrderCreatedEvent at offset {}", record.offset(), e);
+            }
+        }
+
+        try {
+            retryTemplate.execute(context -> paymentService.initiatePayments(initiations));
+        } catch (Exception e) {
+            log.error("Error initiating batch of {} payments, retrying one by one", initiations.size(), e);
+            initiations.forEach(this::initiateSingle);
+        }
+
+        acknowledgment.acknowledge();
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(records.size());
+    }
+
+    private OrderCreatedEvent toEvent(Object value) throws Exception {
+        if (value instanceof String message) {
+            return objectMapper.readValue(message, OrderCreatedEvent.class);
+        }
+        return objectMapper.convertValue(value, OrderCreatedEvent.class);
+    }
+
+    private void initiateSingle(PaymentInitiation initiation) {
+        try {
+            paymentService.initiatePayments(List.of(initiation));
+        } catch (Exception e) {
+            log.error("Error initiating payment for order: {}", initiation.orderId(), e);
+        }
+    }
+}
@@ -3,19 +3,22 @@ package com.neocommercepay.payment.event;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neocommercepay.common.constants.KafkaTopics;
 import com.neocommercepay.common.event.OrderCreatedEvent;
+import com.neocommercepay.payment.service.PaymentInitiation;
 import com.neocommercepay.payment.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnProperty(name = "payment.order-events.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class OrderCreatedEventConsumer {
 
     private final PaymentService paymentService;
@@ -28,11 +31,8 @@ public class OrderCreatedEventConsumer {
             OrderCreatedEvent event = objectMapper.readValue(message, OrderCreatedEvent.class);
             log.info("Received OrderCreatedEvent for order: {}", event.getOrderId());
 
-            retryTemplate.execute(context -> {
-                String idempotencyKey = UUID.randomUUID().toString();
-                paymentService.initiatePayment(event.getOrderId(), event.getTotalAmount(), idempotencyKey);
-                return null;
-            });
+            retryTemplate.execute(context -> paymentService.initiatePayments(
+                    List.of(PaymentInitiation.forOrder(event.getOrderId(), event.getTotalAmount()))));
 
             acknowledgment.acknowledge();
             log.info("Successfully processed OrderCreatedEvent for order: {}", event.getOrderId());
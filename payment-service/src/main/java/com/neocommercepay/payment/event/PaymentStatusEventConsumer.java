@@ -0,0 +1,38 @@
+package com.neocommercepay.payment.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.common.constants.KafkaTopics;
+import com.neocommercepay.payment.repository.PaymentRepository;
+import com.neocommercepay.payment.service.PaymentStatusNotifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentStatusEventConsumer {
+
+    private final PaymentStatusNotifier statusNotifier;
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @KafkaListener(topics = {KafkaTopics.PAYMENT_PROCESSING, KafkaTopics.PAYMENT_COMPLETED,
+            KafkaTopics.PAYMENT_FAILED, KafkaTopics.PAYMENT_REFUNDED},
+            groupId = "${payment.status.notification.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void consumePaymentChanged(String message, Acknowledgment acknowledgment) {
+        try {
+            JsonNode paymentId = objectMapper.readTree(message).get("paymentId");
+            if (paymentId != null && !paymentId.isNull() && statusNotifier.hasWaiters(paymentId.asLong())) {
+                paymentRepository.findById(paymentId.asLong()).ifPresent(statusNotifier::notifyChanged);
+            }
+        } catch (Exception e) {
+            log.error("Error notifying payment status waiters", e);
+        }
+        acknowledgment.acknowledge();
+    }
+}
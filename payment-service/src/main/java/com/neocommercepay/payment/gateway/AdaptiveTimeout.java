@@ -0,0 +1,57 @@
+package com.neocommercepay.payment.gateway;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class AdaptiveTimeout {
+
+    private static final double GAIN = 0.125;
+    private static final double VARIANCE_GAIN = 0.25;
+
+    private final long minMillis;
+    private final long maxMillis;
+    private double smoothedMillis;
+    private double deviationMillis;
+    private boolean sampled;
+    private long backoffMillis;
+
+    public AdaptiveTimeout(MeterRegistry meterRegistry,
+                           @Value("${payment.processor.timeout.min-ms:1500}") long minMillis,
+                           @Value("${payment.processor.timeout-ms:5000}") long maxMillis) {
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+        Gauge.builder("payment.processor.timeout.ms", this, AdaptiveTimeout::currentMillis)
+                .description("Current adaptive timeout for payment processor calls")
+                .register(meterRegistry);
+    }
+
+    public synchronized long currentMillis() {
+        if (!sampled) {
+            return maxMillis;
+        }
+        long timeout = Math.max(Math.round(smoothedMillis + 4 * deviationMillis), backoffMillis);
+        return Math.max(minMillis, Math.min(maxMillis, timeout));
+    }
+
+    public synchronized void onTimeout() {
+        backoffMillis = Math.min(maxMillis, currentMillis() * 2);
+    }
+
+    public synchronized void onSuccess(long elapsedNanos) {
+        backoffMillis /= 2;
+        double sample = elapsedNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        if (!sampled) {
+            smoothedMillis = sample;
+            deviationMillis = sample / 2;
+            sampled = true;
+            return;
+        }
+        deviationMillis = (1 - VARIANCE_GAIN) * deviationMillis + VARIANCE_GAIN * Math.abs(smoothedMillis - sample);
+        smoothedMillis = (1 - GAIN) * smoothedMillis + GAIN * sample;
+    }
+}
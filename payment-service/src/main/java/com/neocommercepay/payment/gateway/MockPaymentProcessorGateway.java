@@ -0,0 +1,66 @@
+package com.neocommercepay.payment.gateway;
+
+import com.neocommercepay.common.util.IdGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class MockPaymentProcessorGateway implements PaymentProcessorGateway {
+
+    private static final int MAX_REMEMBERED_CHARGES = 100_000;
+
+    private final ExecutorService executor;
+    private final long latencyMs;
+    private final double declineRate;
+    private final Map<String, CompletableFuture<ProcessorResult>> charges =
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<ProcessorResult>> eldest) {
+                    return size() > MAX_REMEMBERED_CHARGES;
+                }
+            };
+
+    public MockPaymentProcessorGateway(ExecutorService executor, long latencyMs, double declineRate) {
+        this.executor = executor;
+        this.latencyMs = latencyMs;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public CompletableFuture<ProcessorResult> charge(String idempotencyKey, Long paymentId, Long orderId,
+                                                     BigDecimal amount) {
+        synchronized (charges) {
+            return charges.computeIfAbsent(idempotencyKey, key -> process()).copy();
+        }
+    }
+
+    private CompletableFuture<ProcessorResult> process() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (ThreadLocalRandom.current().nextDouble() < declineRate) {
+                return ProcessorResult.declined("Payment processor declined");
+            }
+            return ProcessorResult.approved(IdGenerator.nextId());
+        }, executor);
+    }
+
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(latencyMs + 5000, TimeUnit.MILLISECONDS)) {
+            log.warn("Mock payment processor did not drain in time");
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.neocommercepay.payment.gateway;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+public interface PaymentProcessorGateway {
+
+    /**
+     * Charges {@code amount} for a payment. Implementations must treat {@code idempotencyKey} as the
+     * identity of the charge: a repeated call with the same key must not charge again and must complete
+     * with the outcome of the original charge, because payments whose call errored or timed out are
+     * reclaimed and dispatched again.
+     */
+    CompletableFuture<ProcessorResult> charge(String idempotencyKey, Long paymentId, Long orderId, BigDecimal amount);
+
+    record ProcessorResult(boolean approved, String transactionId, String declineReason) {
+
+        public static ProcessorResult approved(String transactionId) {
+            return new ProcessorResult(true, transactionId, null);
+        }
+
+        public static ProcessorResult declined(String reason) {
+            return new ProcessorResult(false, null, reason);
+        }
+    }
+}
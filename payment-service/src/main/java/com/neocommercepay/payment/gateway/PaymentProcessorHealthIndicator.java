@@ -0,0 +1,28 @@
+package com.neocommercepay.payment.gateway;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentProcessorHealthIndicator implements HealthIndicator {
+
+    private final ProcessorCircuitBreaker circuitBreaker;
+    private final AdaptiveTimeout adaptiveTimeout;
+    private final Semaphore processorPermits;
+
+    @Override
+    public Health health() {
+        return Health.up()
+                .withDetail("circuit", circuitBreaker.getState().name())
+                .withDetail("failureRate", circuitBreaker.getFailureRate())
+                .withDetail("slowCallRate", circuitBreaker.getSlowCallRate())
+                .withDetail("timeoutMs", adaptiveTimeout.currentMillis())
+                .withDetail("availablePermits", processorPermits.availablePermits())
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.neocommercepay.payment.gateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class ProcessorCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private static final byte SUCCESS = 0;
+    private static final byte SLOW = 1;
+    private static final byte FAILURE = 2;
+
+    private final byte[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final Counter rejectedCounter;
+    private final Counter openedCounter;
+
+    private State state = State.CLOSED;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    public ProcessorCircuitBreaker(MeterRegistry meterRegistry,
+                                   @Value("${payment.processor.circuit.window-size:50}") int windowSize,
+                                   @Value("${payment.processor.circuit.minimum-calls:20}") int minimumCalls,
+                                   @Value("${payment.processor.circuit.failure-rate-threshold:50}") double failureRateThreshold,
+                                   @Value("${payment.processor.circuit.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+                                   @Value("${payment.processor.circuit.slow-call-ms:2000}") long slowCallMs,
+                                   @Value("${payment.processor.circuit.open-ms:30000}") long openMs,
+                                   @Value("${payment.processor.circuit.half-open-calls:5}") int halfOpenCalls) {
+        this.window = new byte[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.halfOpenCalls = halfOpenCalls;
+        this.rejectedCounter = meterRegistry.counter("payment.processor.circuit.rejected");
+        this.openedCounter = meterRegistry.counter("payment.processor.circuit.opened");
+        Gauge.builder("payment.processor.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .register(meterRegistry);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            transition(State.HALF_OPEN);
+        }
+
+        boolean permitted = switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> halfOpenInFlight < halfOpenCalls;
+        };
+        if (!permitted) {
+            rejectedCounter.increment();
+            return false;
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized void onResult(long elapsedNanos, boolean failed) {
+        byte outcome = failed ? FAILURE : elapsedNanos >= slowCallNanos ? SLOW : SUCCESS;
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight > 0) {
+                halfOpenInFlight--;
+            }
+            if (outcome != SUCCESS) {
+                transition(State.OPEN);
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        if (recorded == window.length) {
+            forget(window[position]);
+        } else {
+            recorded++;
+        }
+        window[position] = outcome;
+        position = (position + 1) % window.length;
+        if (outcome == FAILURE) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+
+        if (recorded >= minimumCalls
+                && (getFailureRate() >= failureRateThreshold || getSlowCallRate() >= slowCallRateThreshold)) {
+            transition(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0 : failures * 100.0 / recorded;
+    }
+
+    public synchronized double getSlowCallRate() {
+        return recorded == 0 ? 0 : slowCalls * 100.0 / recorded;
+    }
+
+    private void forget(byte outcome) {
+        if (outcome == FAILURE) {
+            failures--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+
+    private void transition(State next) {
+        log.warn("Payment processor circuit {} -> {} (failure rate {}%, slow call rate {}%)",
+                state, next, getFailureRate(), getSlowCallRate());
+        state = next;
+        halfOpenInFlight = 0;
+        halfOpenSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAt = System.nanoTime();
+            openedCounter.increment();
+        }
+        if (next == State.CLOSED) {
+            position = 0;
+            recorded = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.neocommercepay.payment.repository;
+
+import com.neocommercepay.payment.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    List<LedgerEntry> findByPaymentIdOrderByIdAsc(Long paymentId);
+}
@@ -0,0 +1,9 @@
+package com.neocommercepay.payment.repository;
+
+import com.neocommercepay.payment.entity.PaymentBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PaymentBalanceRepository extends JpaRepository<PaymentBalance, Long> {
+}
@@ -0,0 +1,13 @@
+package com.neocommercepay.payment.repository;
+
+import com.neocommercepay.payment.entity.Payment;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PaymentInsertRepository {
+
+    Optional<Payment> insertIfAbsent(Payment payment);
+
+    List<Payment> insertAllIfAbsent(List<Payment> payments);
+}
@@ -0,0 +1,70 @@
+package com.neocommercepay.payment.repository;
+
+import com.neocommercepay.payment.entity.Payment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class PaymentInsertRepositoryImpl implements PaymentInsertRepository {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+    private static final String INSERT_PREFIX =
+            "INSERT INTO payments (order_id, amount, status, idempotency_key, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, now())";
+    private static final String INSERT_SUFFIX =
+            " ON CONFLICT (idempotency_key) DO NOTHING " +
+            "RETURNING id, order_id, amount, status, transaction_id, idempotency_key, created_at";
+
+    private static final RowMapper<Payment> PAYMENT_ROW_MAPPER = (rs, rowNum) -> Payment.builder()
+            .id(rs.getLong("id"))
+            .orderId(rs.getLong("order_id"))
+            .amount(rs.getBigDecimal("amount"))
+            .status(Payment.PaymentStatus.valueOf(rs.getString("status")))
+            .transactionId(rs.getString("transaction_id"))
+            .idempotencyKey(rs.getString("idempotency_key"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Payment> insertIfAbsent(Payment payment) {
+        return insertAllIfAbsent(List.of(payment)).stream().findFirst();
+    }
+
+    @Override
+    public List<Payment> insertAllIfAbsent(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Payment> inserted = new ArrayList<>(payments.size());
+        for (int start = 0; start < payments.size(); start += MAX_ROWS_PER_STATEMENT) {
+            List<Payment> chunk = payments.subList(start, Math.min(start + MAX_ROWS_PER_STATEMENT, payments.size()));
+            inserted.addAll(jdbcTemplate.query(insertSql(chunk.size()), PAYMENT_ROW_MAPPER, insertArgs(chunk)));
+        }
+        return inserted;
+    }
+
+    private static String insertSql(int rows) {
+        return INSERT_PREFIX + String.join(", ", Collections.nCopies(rows, ROW_PLACEHOLDER)) + INSERT_SUFFIX;
+    }
+
+    private static Object[] insertArgs(List<Payment> payments) {
+        Object[] args = new Object[payments.size() * 4];
+        int i = 0;
+        for (Payment payment : payments) {
+            args[i++] = payment.getOrderId();
+            args[i++] = payment.getAmount();
+            args[i++] = payment.getStatus().name();
+            args[i++] = payment.getIdempotencyKey();
+        }
+        return args;
+    }
+}
@@ -1,13 +1,35 @@
 package com.neocommercepay.payment.repository;
 
 import com.neocommercepay.payment.entity.Payment;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentInsertRepository {
     Optional<Payment> findByOrderId(Long orderId);
     Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+    List<Payment> findByOrderIdIn(Collection<Long> orderIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id = :id")
+    Optional<Payment> findForUpdateById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = 'PROCESSING', p.claimedAt = :claimedAt, p.claimedBy = :claimedBy " +
+           "WHERE p.id = :id AND p.status = 'INITIATED'")
+    int claimIfInitiated(@Param("id") Long id,
+                         @Param("claimedAt") LocalDateTime claimedAt,
+                         @Param("claimedBy") String claimedBy);
+
+    long countByStatus(Payment.PaymentStatus status);
 }
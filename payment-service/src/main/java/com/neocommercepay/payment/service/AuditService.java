@@ -4,9 +4,15 @@ import com.neocommercepay.payment.entity.AuditLog;
 import com.neocommercepay.payment.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -14,19 +20,59 @@ import java.util.List;
 public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+
+    @Value("${payment.audit.mode:async}")
+    private String mode;
+
+    @Value("${payment.audit.sync-actions:}")
+    private Set<String> syncActions;
 
     public void logAction(String action, Long paymentId, String details) {
         AuditLog auditLog = AuditLog.builder()
                 .action(action)
                 .paymentId(paymentId)
                 .details(details)
+                .timestamp(LocalDateTime.now())
                 .build();
 
-        auditLogRepository.save(auditLog);
+        write(action, List.of(auditLog));
         log.info("Audit log created: {} for payment: {}", action, paymentId);
     }
 
+    public void logActions(String action, Map<Long, String> detailsByPaymentId) {
+        List<AuditLog> auditLogs = detailsByPaymentId.entrySet().stream()
+                .map(entry -> AuditLog.builder()
+                        .action(action)
+                        .paymentId(entry.getKey())
+                        .details(entry.getValue())
+                        .timestamp(LocalDateTime.now())
+                        .build())
+                .toList();
+
+        write(action, auditLogs);
+        log.info("Audit logs created: {} for {} payments", action, auditLogs.size());
+    }
+
     public List<AuditLog> getAuditLogsByPaymentId(Long paymentId) {
         return auditLogRepository.findByPaymentId(paymentId);
     }
+
+    private void write(String action, List<AuditLog> auditLogs) {
+        if ("sync".equalsIgnoreCase(mode) || syncActions.contains(action)) {
+            auditLogRepository.saveAll(auditLogs);
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            auditLogWriter.enqueue(auditLogs);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                auditLogWriter.enqueue(auditLogs);
+            }
+        });
+    }
 }
@@ -0,0 +1,8 @@
+package com.neocommercepay.payment.service;
+
+import com.neocommercepay.payment.entity.Transaction;
+
+import java.math.BigDecimal;
+
+public record LedgerPosting(Long paymentId, Transaction.TransactionType type, BigDecimal amount, String transactionId) {
+}
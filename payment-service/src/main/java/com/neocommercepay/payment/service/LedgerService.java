@@ -0,0 +1,99 @@
+package com.neocommercepay.payment.service;
+
+import com.neocommercepay.common.util.IdGenerator;
+import com.neocommercepay.payment.entity.LedgerEntry;
+import com.neocommercepay.payment.entity.PaymentBalance;
+import com.neocommercepay.payment.entity.Transaction;
+import com.neocommercepay.payment.repository.LedgerEntryRepository;
+import com.neocommercepay.payment.repository.PaymentBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerService {
+
+    static final String ADD_TO_BALANCE =
+            "INSERT INTO payment_balances (payment_id, charged, refunded, updated_at) VALUES (?, ?, ?, now()) " +
+            "ON CONFLICT (payment_id) DO UPDATE SET " +
+            "charged = payment_balances.charged + EXCLUDED.charged, " +
+            "refunded = payment_balances.refunded + EXCLUDED.refunded, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final PaymentBalanceRepository paymentBalanceRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void post(LedgerPosting posting) {
+        postAll(List.of(posting));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void postAll(List<LedgerPosting> postings) {
+        List<LedgerEntry> entries = new ArrayList<>(postings.size() * 2);
+        Map<Long, BigDecimal[]> deltas = new TreeMap<>();
+
+        for (LedgerPosting posting : postings) {
+            if (posting.type() == Transaction.TransactionType.AUTHORIZATION) {
+                continue;
+            }
+
+            boolean refund = posting.type() == Transaction.TransactionType.REFUND;
+            String entryGroup = IdGenerator.nextId();
+            entries.add(buildEntry(posting, entryGroup, LedgerEntry.Account.CUSTOMER,
+                    refund ? LedgerEntry.Direction.CREDIT : LedgerEntry.Direction.DEBIT));
+            entries.add(buildEntry(posting, entryGroup, LedgerEntry.Account.MERCHANT,
+                    refund ? LedgerEntry.Direction.DEBIT : LedgerEntry.Direction.CREDIT));
+
+            BigDecimal[] delta = deltas.computeIfAbsent(posting.paymentId(),
+                    id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            int index = refund ? 1 : 0;
+            delta[index] = delta[index].add(posting.amount());
+        }
+
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        ledgerEntryRepository.saveAll(entries);
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((paymentId, delta) -> args.add(new Object[]{paymentId, delta[0], delta[1]}));
+        jdbcTemplate.batchUpdate(ADD_TO_BALANCE, args);
+
+        log.debug("Posted {} ledger entries across {} payments", entries.size(), deltas.size());
+    }
+
+    public Optional<PaymentBalance> getBalance(Long paymentId) {
+        return paymentBalanceRepository.findById(paymentId);
+    }
+
+    public List<LedgerEntry> getEntries(Long paymentId) {
+        return ledgerEntryRepository.findByPaymentIdOrderByIdAsc(paymentId);
+    }
+
+    private LedgerEntry buildEntry(LedgerPosting posting, String entryGroup,
+                                   LedgerEntry.Account account, LedgerEntry.Direction direction) {
+        return LedgerEntry.builder()
+                .paymentId(posting.paymentId())
+                .entryGroup(entryGroup)
+                .account(account)
+                .direction(direction)
+                .amount(posting.amount())
+                .transactionType(posting.type())
+                .transactionId(posting.transactionId())
+                .build();
+    }
+}
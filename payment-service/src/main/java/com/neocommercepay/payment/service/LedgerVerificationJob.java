@@ -0,0 +1,183 @@
+package com.neocommercepay.payment.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Component
+@Slf4j
+public class LedgerVerificationJob {
+
+    private static final long ADVISORY_LOCK_KEY = 0x4C45_4447_5645_5246L;
+
+    private static final String LEDGER_RANGE = "SELECT MIN(payment_id), MAX(payment_id) FROM ledger_entries";
+
+    private static final String LEDGER_TOTALS =
+            "SELECT payment_id, " +
+            "SUM(CASE WHEN direction = 'CREDIT' THEN amount ELSE 0 END) AS charged, " +
+            "SUM(CASE WHEN direction = 'DEBIT' THEN amount ELSE 0 END) AS refunded " +
+            "FROM ledger_entries WHERE account = 'MERCHANT' AND payment_id BETWEEN ? AND ? " +
+            "GROUP BY payment_id";
+
+    private static final String BALANCES =
+            "SELECT payment_id, charged, refunded FROM payment_balances WHERE payment_id BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final TransactionTemplate repairTemplate;
+    private final Counter mismatchCounter;
+    private final Timer verifyTimer;
+
+    @Value("${payment.ledger.verify.chunk-size:10000}")
+    private long chunkSize;
+
+    @Value("${payment.ledger.verify.parallelism:4}")
+    private int parallelism;
+
+    @Value("${payment.ledger.verify.repair:true}")
+    private boolean repair;
+
+    public LedgerVerificationJob(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.repairTemplate = new TransactionTemplate(transactionManager);
+        this.mismatchCounter = meterRegistry.counter("payment.ledger.mismatches");
+        this.verifyTimer = meterRegistry.timer("payment.ledger.verify");
+    }
+
+    @Scheduled(cron = "${payment.ledger.verify.cron:0 30 3 * * *}")
+    public void scheduledVerify() {
+        verify(repair);
+    }
+
+    public int verify(boolean repairMismatches) {
+        Integer mismatches = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                lock.setLong(1, ADVISORY_LOCK_KEY);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || !rs.getBoolean(1)) {
+                        log.info("Ledger verification already running on another instance, skipping");
+                        return 0;
+                    }
+                }
+            }
+            try {
+                return verifyAll(repairMismatches);
+            } finally {
+                try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    unlock.setLong(1, ADVISORY_LOCK_KEY);
+                    unlock.execute();
+                }
+            }
+        });
+        return mismatches != null ? mismatches : 0;
+    }
+
+    private int verifyAll(boolean repairMismatches) {
+        return verifyTimer.record(() -> {
+            Long[] range = jdbcTemplate.queryForObject(LEDGER_RANGE,
+                    (rs, rowNum) -> new Long[]{(Long) rs.getObject(1), (Long) rs.getObject(2)});
+            if (range == null || range[0] == null) {
+                return 0;
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+            try {
+                List<Future<Integer>> chunks = new ArrayList<>();
+                for (long from = range[0]; from <= range[1]; from += chunkSize) {
+                    long to = Math.min(from + chunkSize - 1, range[1]);
+                    long chunkFrom = from;
+                    chunks.add(executor.submit(() -> verifyChunk(chunkFrom, to, repairMismatches)));
+                }
+
+                int mismatches = 0;
+                for (Future<Integer> chunk : chunks) {
+                    mismatches += chunk.get();
+                }
+                log.info("Verified ledger balances for payments {}..{} in {} chunks: {} mismatches{}",
+                        range[0], range[1], chunks.size(), mismatches, repairMismatches ? " repaired" : "");
+                return mismatches;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ledger verification interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Ledger verification failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        });
+    }
+
+    private int verifyChunk(long from, long to, boolean repairMismatches) {
+        Map<Long, BigDecimal[]> corrections = snapshotTemplate.execute(status -> {
+            Map<Long, BigDecimal[]> expected = new HashMap<>();
+            jdbcTemplate.query(LEDGER_TOTALS, rs -> {
+                expected.put(rs.getLong("payment_id"),
+                        new BigDecimal[]{rs.getBigDecimal("charged"), rs.getBigDecimal("refunded")});
+            }, from, to);
+
+            Map<Long, BigDecimal[]> deltas = new HashMap<>();
+            Set<Long> seen = new HashSet<>();
+            jdbcTemplate.query(BALANCES, rs -> {
+                long paymentId = rs.getLong("payment_id");
+                seen.add(paymentId);
+                BigDecimal[] ledger = expected.getOrDefault(paymentId, new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                BigDecimal chargedDelta = ledger[0].subtract(rs.getBigDecimal("charged"));
+                BigDecimal refundedDelta = ledger[1].subtract(rs.getBigDecimal("refunded"));
+                if (chargedDelta.signum() != 0 || refundedDelta.signum() != 0) {
+                    deltas.put(paymentId, new BigDecimal[]{chargedDelta, refundedDelta});
+                }
+            }, from, to);
+
+            expected.forEach((paymentId, ledger) -> {
+                if (!seen.contains(paymentId)) {
+                    deltas.put(paymentId, ledger);
+                }
+            });
+            return deltas;
+        });
+
+        if (corrections.isEmpty()) {
+            return 0;
+        }
+
+        mismatchCounter.increment(corrections.size());
+        corrections.forEach((paymentId, delta) ->
+                log.warn("Ledger balance mismatch for payment {}: charged off by {}, refunded off by {}",
+                        paymentId, delta[0], delta[1]));
+
+        if (repairMismatches) {
+            List<Object[]> args = new ArrayList<>(corrections.size());
+            corrections.forEach((paymentId, delta) -> args.add(new Object[]{paymentId, delta[0], delta[1]}));
+            repairTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(LedgerService.ADD_TO_BALANCE, args));
+        }
+        return corrections.size();
+    }
+}
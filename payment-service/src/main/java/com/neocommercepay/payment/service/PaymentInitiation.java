@@ -0,0 +1,10 @@
+package com.neocommercepay.payment.service;
+
+import java.math.BigDecimal;
+
+public record PaymentInitiation(Long orderId, BigDecimal amount, String idempotencyKey) {
+
+    public static PaymentInitiation forOrder(Long orderId, BigDecimal amount) {
+        return new PaymentInitiation(orderId, amount, "order-" + orderId);
+    }
+}
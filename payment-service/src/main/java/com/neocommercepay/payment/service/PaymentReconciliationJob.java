@@ -0,0 +1,337 @@
+package com.neocommercepay.payment.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class PaymentReconciliationJob {
+
+    private static final long ADVISORY_LOCK_KEY = 0x5041_594D_5245_434EL;
+
+    private static final String ID_RANGE =
+            "SELECT LEAST((SELECT MIN(id) FROM payments), (SELECT MIN(payment_id) FROM transactions)), " +
+            "GREATEST((SELECT MAX(id) FROM payments), (SELECT MAX(payment_id) FROM transactions))";
+
+    private static final String RECONCILE_PAYMENTS =
+            "SELECT p.id, p.status, p.amount, " +
+            "COALESCE(t.charges, 0) AS charges, COALESCE(t.charged, 0) AS charged, " +
+            "COALESCE(t.refunds, 0) AS refunds, COALESCE(t.refunded, 0) AS refunded " +
+            "FROM payments p LEFT JOIN (" +
+            "SELECT payment_id, " +
+            "COUNT(*) FILTER (WHERE transaction_type = 'CHARGE') AS charges, " +
+            "SUM(amount) FILTER (WHERE transaction_type = 'CHARGE') AS charged, " +
+            "COUNT(*) FILTER (WHERE transaction_type = 'REFUND') AS refunds, " +
+            "SUM(amount) FILTER (WHERE transaction_type = 'REFUND') AS refunded " +
+            "FROM transactions WHERE payment_id BETWEEN ? AND ? GROUP BY payment_id" +
+            ") t ON t.payment_id = p.id " +
+            "WHERE p.id BETWEEN ? AND ?";
+
+    private static final String ORPHAN_TRANSACTIONS =
+            "SELECT t.id, t.payment_id, t.transaction_type, t.amount FROM transactions t " +
+            "WHERE t.payment_id BETWEEN ? AND ? " +
+            "AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.id = t.payment_id)";
+
+    private static final String REPORT_HEADER = "payment_id,transaction_id,issue,status,expected,actual\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter rowsCounter;
+    private final Counter discrepancyCounter;
+    private final Timer runTimer;
+
+    @Value("${payment.reconciliation.report-dir:reconciliation}")
+    private String reportDir;
+
+    @Value("${payment.reconciliation.chunk-size:5000}")
+    private long chunkSize;
+
+    @Value("${payment.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${payment.reconciliation.fetch-size:1000}")
+    private int fetchSize;
+
+    public PaymentReconciliationJob(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowsCounter = meterRegistry.counter("payment.reconciliation.rows");
+        this.discrepancyCounter = meterRegistry.counter("payment.reconciliation.discrepancies");
+        this.runTimer = meterRegistry.timer("payment.reconciliation.run");
+    }
+
+    @Scheduled(cron = "${payment.reconciliation.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                lock.setLong(1, ADVISORY_LOCK_KEY);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || !rs.getBoolean(1)) {
+                        log.info("Payment reconciliation already running on another instance, skipping");
+                        return null;
+                    }
+                }
+            }
+            try {
+                run();
+            } finally {
+                try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    unlock.setLong(1, ADVISORY_LOCK_KEY);
+                    unlock.execute();
+                }
+            }
+            return null;
+        });
+    }
+
+    public synchronized Path run() {
+        long[] range = jdbcTemplate.queryForObject(ID_RANGE,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2), rs.wasNull() ? 1 : 0});
+        if (range == null || range[2] == 1) {
+            log.info("Nothing to reconcile");
+            return null;
+        }
+
+        Checkpoint checkpoint = loadCheckpoint();
+        if (checkpoint == null) {
+            String runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            checkpoint = new Checkpoint(Paths.get(reportDir, "payment-reconciliation-" + runId + ".csv"),
+                    range[0], 0, 0);
+            writeReportHeader(checkpoint.report());
+        } else {
+            log.info("Resuming payment reconciliation from payment id {} into {}", checkpoint.nextId(), checkpoint.report());
+        }
+
+        long started = System.nanoTime();
+        long rowsThisRun = 0;
+        long segmentSize = chunkSize * parallelism;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try (Writer report = Files.newBufferedWriter(checkpoint.report(), StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND)) {
+            for (long from = checkpoint.nextId(); from <= range[1]; from += segmentSize) {
+                long to = Math.min(from + segmentSize - 1, range[1]);
+                ChunkResult result = pool.invoke(new ReconcileTask(from, to));
+
+                for (String line : result.lines()) {
+                    report.write(line);
+                }
+                report.flush();
+
+                rowsThisRun += result.rows();
+                rowsCounter.increment(result.rows());
+                discrepancyCounter.increment(result.lines().size());
+                checkpoint = new Checkpoint(checkpoint.report(), to + 1,
+                        checkpoint.rows() + result.rows(), checkpoint.discrepancies() + result.lines().size());
+                saveCheckpoint(checkpoint);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write reconciliation report " + checkpoint.report(), e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        log.info("Payment reconciliation finished: {} payments checked, {} discrepancies, report {} ({} rows/s)",
+                checkpoint.rows(), checkpoint.discrepancies(), checkpoint.report(), rowsThisRun * 1000 / elapsedMillis);
+
+        deleteCheckpoint();
+        return checkpoint.report();
+    }
+
+    private ChunkResult reconcileChunk(long from, long to) {
+        List<String> lines = new ArrayList<>();
+        long[] rows = new long[1];
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(RECONCILE_PAYMENTS);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, from);
+            ps.setLong(2, to);
+            ps.setLong(3, from);
+            ps.setLong(4, to);
+            return ps;
+        }, rs -> {
+            rows[0]++;
+            long paymentId = rs.getLong("id");
+            String status = rs.getString("status");
+            BigDecimal amount = rs.getBigDecimal("amount");
+            long charges = rs.getLong("charges");
+            BigDecimal charged = rs.getBigDecimal("charged");
+            long refunds = rs.getLong("refunds");
+            BigDecimal refunded = rs.getBigDecimal("refunded");
+
+            switch (status) {
+                case "COMPLETED" -> {
+                    checkCharge(lines, paymentId, status, amount, charges, charged);
+                    if (refunds > 0) {
+                        lines.add(line(paymentId, null, "UNEXPECTED_REFUND", status, BigDecimal.ZERO, refunded));
+                    }
+                }
+                case "REFUNDED" -> {
+                    checkCharge(lines, paymentId, status, amount, charges, charged);
+                    if (refunds == 0) {
+                        lines.add(line(paymentId, null, "MISSING_REFUND", status, amount, BigDecimal.ZERO));
+                    } else if (refunded.compareTo(amount) != 0) {
+                        lines.add(line(paymentId, null, "REFUND_AMOUNT_MISMATCH", status, amount, refunded));
+                    }
+                }
+                default -> {
+                    if (charges > 0 || refunds > 0) {
+                        lines.add(line(paymentId, null, "UNEXPECTED_TRANSACTION", status,
+                                BigDecimal.ZERO, charged.add(refunded)));
+                    }
+                }
+            }
+        });
+
+        jdbcTemplate.query(ORPHAN_TRANSACTIONS, rs -> {
+            lines.add(line(rs.getLong("payment_id"), rs.getLong("id"), "ORPHAN_" + rs.getString("transaction_type"),
+                    "", BigDecimal.ZERO, rs.getBigDecimal("amount")));
+        }, from, to);
+
+        return new ChunkResult(rows[0], lines);
+    }
+
+    private static void checkCharge(List<String> lines, long paymentId, String status,
+                                    BigDecimal amount, long charges, BigDecimal charged) {
+        if (charges == 0) {
+            lines.add(line(paymentId, null, "MISSING_CHARGE", status, amount, BigDecimal.ZERO));
+        } else if (charged.compareTo(amount) != 0) {
+            lines.add(line(paymentId, null, "CHARGE_AMOUNT_MISMATCH", status, amount, charged));
+        }
+    }
+
+    private static String line(long paymentId, Long transactionId, String issue, String status,
+                               BigDecimal expected, BigDecimal actual) {
+        return paymentId + "," + (transactionId != null ? transactionId : "") + "," + issue + "," + status + ","
+                + expected.toPlainString() + "," + actual.toPlainString() + "\n";
+    }
+
+    private void writeReportHeader(Path report) {
+        try {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+                writer.write(REPORT_HEADER);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create reconciliation report " + report, e);
+        }
+    }
+
+    private Path checkpointFile() {
+        return Paths.get(reportDir, "payment-reconciliation.checkpoint");
+    }
+
+    private Checkpoint loadCheckpoint() {
+        Path file = checkpointFile();
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read reconciliation checkpoint " + file, e);
+        }
+        Path report = Paths.get(properties.getProperty("report"));
+        if (!Files.exists(report)) {
+            log.warn("Reconciliation report {} from checkpoint is missing, starting over", report);
+            return null;
+        }
+        return new Checkpoint(report,
+                Long.parseLong(properties.getProperty("nextId")),
+                Long.parseLong(properties.getProperty("rows")),
+                Long.parseLong(properties.getProperty("discrepancies")));
+    }
+
+    private void saveCheckpoint(Checkpoint checkpoint) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("report", checkpoint.report().toString());
+        properties.setProperty("nextId", String.valueOf(checkpoint.nextId()));
+        properties.setProperty("rows", String.valueOf(checkpoint.rows()));
+        properties.setProperty("discrepancies", String.valueOf(checkpoint.discrepancies()));
+
+        Path file = checkpointFile();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(checkpointFile());
+        } catch (IOException e) {
+            log.warn("Failed to delete reconciliation checkpoint", e);
+        }
+    }
+
+    private record Checkpoint(Path report, long nextId, long rows, long discrepancies) {
+    }
+
+    private record ChunkResult(long rows, List<String> lines) {
+
+        private ChunkResult merge(ChunkResult other) {
+            List<String> merged = new ArrayList<>(lines.size() + other.lines.size());
+            merged.addAll(lines);
+            merged.addAll(other.lines);
+            return new ChunkResult(rows + other.rows, merged);
+        }
+    }
+
+    private class ReconcileTask extends RecursiveTask<ChunkResult> {
+
+        private final long from;
+        private final long to;
+
+        private ReconcileTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            if (to - from < chunkSize) {
+                return reconcileChunk(from, to);
+            }
+            long mid = from + (to - from) / 2;
+            ReconcileTask left = new ReconcileTask(from, mid);
+            ReconcileTask right = new ReconcileTask(mid + 1, to);
+            left.fork();
+            ChunkResult rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+    }
+}
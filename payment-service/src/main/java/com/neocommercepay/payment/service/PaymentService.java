@@ -2,44 +2,95 @@ package com.neocommercepay.payment.service;
 
 import com.neocommercepay.common.exception.BusinessException;
 import com.neocommercepay.common.exception.NotFoundException;
+import com.neocommercepay.common.exception.ServiceUnavailableException;
+import com.neocommercepay.common.util.IdGenerator;
 import com.neocommercepay.payment.entity.Payment;
+import com.neocommercepay.payment.entity.PaymentBalance;
 import com.neocommercepay.payment.entity.Transaction;
 import com.neocommercepay.payment.event.PaymentEventProducer;
+import com.neocommercepay.payment.gateway.AdaptiveTimeout;
+import com.neocommercepay.payment.gateway.PaymentProcessorGateway;
+import com.neocommercepay.payment.gateway.ProcessorCircuitBreaker;
 import com.neocommercepay.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.util.Random;
-import java.util.UUID;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentService {
 
+    private static final String CLAIM_BATCH =
+            "WITH claimable AS (" +
+            "SELECT id, status FROM payments " +
+            "WHERE status = 'INITIATED' " +
+            "OR (status = 'PROCESSING' AND (claimed_at IS NULL OR claimed_at < ?)) " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "UPDATE payments p SET status = 'PROCESSING', claimed_at = now(), claimed_by = ? " +
+            "FROM claimable c WHERE p.id = c.id " +
+            "RETURNING p.id, c.status AS previous_status";
+
     private final PaymentRepository paymentRepository;
     private final TransactionService transactionService;
+    private final LedgerService ledgerService;
     private final AuditService auditService;
     private final PaymentEventProducer paymentEventProducer;
-    private final Random random = new Random();
+    private final PaymentProcessorGateway paymentProcessorGateway;
+    private final ProcessorCircuitBreaker circuitBreaker;
+    private final AdaptiveTimeout adaptiveTimeout;
+    private final Semaphore processorPermits;
+    private final ExecutorService paymentOutcomeExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final PaymentStatusNotifier statusNotifier;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.processor.acquire-timeout-ms:500}")
+    private long permitTimeoutMs;
 
     @Transactional
     public Payment initiatePayment(Long orderId, BigDecimal amount, String idempotencyKey) {
-        if (paymentRepository.findByIdempotencyKey(idempotencyKey).isPresent()) {
-            throw new BusinessException("Duplicate payment request detected");
-        }
+        Payment payment = buildPayment(new PaymentInitiation(orderId, amount, idempotencyKey));
 
-        Payment payment = Payment.builder()
-                .orderId(orderId)
-                .amount(amount)
-                .status(Payment.PaymentStatus.INITIATED)
-                .idempotencyKey(idempotencyKey)
-                .build();
+        Optional<Payment> inserted;
+        try {
+            inserted = paymentRepository.insertIfAbsent(payment);
+        } catch (DuplicateKeyException e) {
+            throw new BusinessException("A payment already exists for order: " + orderId);
+        }
+        if (inserted.isEmpty()) {
+            log.debug("Returning existing payment for idempotency key: {}", idempotencyKey);
+            return paymentRepository.findByIdempotencyKey(idempotencyKey)
+                    .orElseThrow(() -> new NotFoundException("Payment not found for idempotency key: " + idempotencyKey));
+        }
 
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = inserted.get();
         auditService.logAction("PAYMENT_INITIATED", savedPayment.getId(),
                 "Payment initiated for order: " + orderId);
         paymentEventProducer.publishPaymentInitiated(savedPayment);
@@ -49,50 +100,124 @@ public class PaymentService {
     }
 
     @Transactional
-    public Payment processPayment(Long paymentId) {
-        Payment payment = getPaymentById(paymentId);
-
-        if (payment.getStatus() != Payment.PaymentStatus.INITIATED) {
-            throw new BusinessException("Payment cannot be processed in current status: " + payment.getStatus());
+    public List<Payment> initiatePayments(List<PaymentInitiation> initiations) {
+        Map<String, Payment> requested = new LinkedHashMap<>();
+        for (PaymentInitiation initiation : initiations) {
+            requested.putIfAbsent(initiation.idempotencyKey(), buildPayment(initiation));
         }
 
-        payment.setStatus(Payment.PaymentStatus.PROCESSING);
-        paymentRepository.save(payment);
-        paymentEventProducer.publishPaymentProcessing(payment);
-
-        auditService.logAction("PAYMENT_PROCESSING", payment.getId(),
-                "Payment processing started");
-
-        boolean success = mockPaymentProcessor(payment);
+        List<Payment> inserted = paymentRepository.insertAllIfAbsent(new ArrayList<>(requested.values()));
+        Map<String, Payment> byKey = new HashMap<>();
+        Map<Long, Payment> byOrderId = new HashMap<>();
+        inserted.forEach(payment -> {
+            byKey.put(payment.getIdempotencyKey(), payment);
+            byOrderId.put(payment.getOrderId(), payment);
+        });
+
+        if (inserted.size() < requested.size()) {
+            List<Long> duplicateOrderIds = requested.values().stream()
+                    .filter(payment -> !byKey.containsKey(payment.getIdempotencyKey()))
+                    .map(Payment::getOrderId)
+                    .collect(Collectors.toList());
+            paymentRepository.findByOrderIdIn(duplicateOrderIds)
+                    .forEach(payment -> byOrderId.putIfAbsent(payment.getOrderId(), payment));
+            log.debug("Skipped {} duplicate payment initiations", requested.size() - inserted.size());
+        }
 
-        if (success) {
-            String transactionId = UUID.randomUUID().toString();
-            payment.setStatus(Payment.PaymentStatus.COMPLETED);
-            payment.setTransactionId(transactionId);
-            Payment completedPayment = paymentRepository.save(payment);
+        if (!inserted.isEmpty()) {
+            auditService.logActions("PAYMENT_INITIATED", inserted.stream()
+                    .collect(Collectors.toMap(Payment::getId,
+                            payment -> "Payment initiated for order: " + payment.getOrderId())));
+            inserted.forEach(paymentEventProducer::publishPaymentInitiated);
+        }
 
-            transactionService.logTransaction(payment.getId(), Transaction.TransactionType.CHARGE,
-                    payment.getAmount(), transactionId);
+        log.info("Batch initiated {} of {} payments", inserted.size(), initiations.size());
+        return initiations.stream()
+                .map(initiation -> byKey.getOrDefault(initiation.idempotencyKey(), byOrderId.get(initiation.orderId())))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
-            auditService.logAction("PAYMENT_COMPLETED", payment.getId(),
-                    "Payment completed successfully. Transaction ID: " + transactionId);
+    public CompletableFuture<Payment> processPayment(Long paymentId) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new ServiceUnavailableException("Payment processor is unavailable, retry later");
+        }
+        if (!acquirePermit()) {
+            circuitBreaker.release();
+            throw new ServiceUnavailableException("Payment processor is at capacity, retry later");
+        }
 
-            paymentEventProducer.publishPaymentCompleted(completedPayment, transactionId);
-            log.info("Payment completed: {}", payment.getId());
+        Payment payment;
+        try {
+            payment = transactionTemplate.execute(status -> markProcessing(paymentId));
+        } catch (RuntimeException e) {
+            processorPermits.release();
+            circuitBreaker.release();
+            throw e;
+        }
 
-            return completedPayment;
-        } else {
-            payment.setStatus(Payment.PaymentStatus.FAILED);
-            Payment failedPayment = paymentRepository.save(payment);
+        return dispatch(payment);
+    }
 
-            auditService.logAction("PAYMENT_FAILED", payment.getId(),
-                    "Payment processing failed");
+    @Transactional
+    public List<Payment> claimForProcessing(int limit, String workerId, Duration lease) {
+        Map<Long, String> claimed = new LinkedHashMap<>();
+        jdbcTemplate.query(CLAIM_BATCH, rs -> {
+            claimed.put(rs.getLong("id"), rs.getString("previous_status"));
+        }, Timestamp.valueOf(LocalDateTime.now().minus(lease)), limit, workerId);
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
 
-            paymentEventProducer.publishPaymentFailed(failedPayment, "Payment processor declined");
-            log.error("Payment failed: {}", payment.getId());
+        List<Payment> payments = paymentRepository.findAllById(claimed.keySet());
+        Map<Long, String> started = new HashMap<>();
+        for (Payment payment : payments) {
+            statusNotifier.notifyAfterCommit(payment);
+            if (Payment.PaymentStatus.INITIATED.name().equals(claimed.get(payment.getId()))) {
+                paymentEventProducer.publishPaymentProcessing(payment);
+                started.put(payment.getId(), "Payment processing started by worker " + workerId);
+            } else {
+                log.warn("Reclaimed payment {} after its processing lease expired", payment.getId());
+                started.put(payment.getId(), "Payment processing reclaimed by worker " + workerId);
+            }
+        }
+        auditService.logActions("PAYMENT_PROCESSING", started);
+        return payments;
+    }
 
-            return failedPayment;
+    public CompletableFuture<Payment> dispatch(Payment payment) {
+        Long paymentId = payment.getId();
+        long started = System.nanoTime();
+        CompletableFuture<PaymentProcessorGateway.ProcessorResult> charge;
+        try {
+            charge = paymentProcessorGateway.charge("payment-" + paymentId, paymentId, payment.getOrderId(),
+                            payment.getAmount())
+                    .orTimeout(adaptiveTimeout.currentMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            charge = CompletableFuture.failedFuture(e);
         }
+
+        return charge
+                .handleAsync((result, error) -> {
+                    long elapsedNanos = System.nanoTime() - started;
+                    boolean timedOut = error instanceof TimeoutException
+                            || error != null && error.getCause() instanceof TimeoutException;
+                    String outcome = timedOut ? "timeout" : error != null ? "error"
+                            : result.approved() ? "approved" : "declined";
+                    recordLatency(outcome, elapsedNanos);
+                    circuitBreaker.onResult(elapsedNanos, error != null);
+                    if (timedOut) {
+                        adaptiveTimeout.onTimeout();
+                    }
+                    if (error != null) {
+                        log.warn("Payment processor call failed for payment: {}, leaving it PROCESSING for reclaim",
+                                paymentId, error);
+                        return getPaymentById(paymentId);
+                    }
+                    adaptiveTimeout.onSuccess(elapsedNanos);
+                    return transactionTemplate.execute(status -> recordOutcome(paymentId, result));
+                }, paymentOutcomeExecutor)
+                .whenComplete((result, error) -> processorPermits.release());
     }
 
     @Transactional
@@ -102,11 +227,16 @@ public class PaymentService {
         if (payment.getStatus() != Payment.PaymentStatus.COMPLETED) {
             throw new BusinessException("Only completed payments can be refunded");
         }
+        ledgerService.getBalance(paymentId)
+                .filter(balance -> balance.getNet().compareTo(payment.getAmount()) < 0)
+                .ifPresent(balance -> {
+                    throw new BusinessException("Refund exceeds the remaining balance of payment: " + paymentId);
+                });
 
         payment.setStatus(Payment.PaymentStatus.REFUNDED);
         Payment refundedPayment = paymentRepository.save(payment);
 
-        String refundTransactionId = UUID.randomUUID().toString();
+        String refundTransactionId = IdGenerator.nextId();
         transactionService.logTransaction(payment.getId(), Transaction.TransactionType.REFUND,
                 payment.getAmount(), refundTransactionId);
 
@@ -114,6 +244,7 @@ public class PaymentService {
                 "Payment refunded. Reason: " + reason);
 
         paymentEventProducer.publishPaymentRefunded(refundedPayment, reason);
+        statusNotifier.notifyAfterCommit(refundedPayment);
         log.info("Payment refunded: {}", payment.getId());
 
         return refundedPayment;
@@ -124,18 +255,108 @@ public class PaymentService {
                 .orElseThrow(() -> new NotFoundException("Payment not found with id: " + id));
     }
 
+    public CompletableFuture<Optional<Payment>> awaitStatusChange(Long paymentId, Payment.PaymentStatus knownStatus,
+                                                                  long timeoutMs) {
+        CompletableFuture<Optional<Payment>> waiter = statusNotifier.register(paymentId, knownStatus, timeoutMs);
+        try {
+            Payment current = getPaymentById(paymentId);
+            if (knownStatus == null || current.getStatus() != knownStatus) {
+                waiter.complete(Optional.of(current));
+            }
+        } catch (RuntimeException e) {
+            waiter.complete(Optional.empty());
+            throw e;
+        }
+        return waiter;
+    }
+
+    public PaymentBalance getPaymentBalance(Long paymentId) {
+        return ledgerService.getBalance(paymentId)
+                .orElseThrow(() -> new NotFoundException("Balance not found for payment: " + paymentId));
+    }
+
     public Payment getPaymentByOrderId(Long orderId) {
         return paymentRepository.findByOrderId(orderId)
                 .orElseThrow(() -> new NotFoundException("Payment not found for order: " + orderId));
     }
 
-    private boolean mockPaymentProcessor(Payment payment) {
+    private Payment buildPayment(PaymentInitiation initiation) {
+        return Payment.builder()
+                .orderId(initiation.orderId())
+                .amount(initiation.amount())
+                .status(Payment.PaymentStatus.INITIATED)
+                .idempotencyKey(initiation.idempotencyKey())
+                .build();
+    }
+
+    private Payment markProcessing(Long paymentId) {
+        Payment current = getPaymentById(paymentId);
+        if (paymentRepository.claimIfInitiated(paymentId, LocalDateTime.now(), "api") == 0) {
+            throw new BusinessException("Payment cannot be processed in current status: " + current.getStatus());
+        }
+
+        Payment payment = getPaymentById(paymentId);
+        paymentEventProducer.publishPaymentProcessing(payment);
+        statusNotifier.notifyAfterCommit(payment);
+        auditService.logAction("PAYMENT_PROCESSING", payment.getId(),
+                "Payment processing started");
+        return payment;
+    }
+
+    private Payment recordOutcome(Long paymentId, PaymentProcessorGateway.ProcessorResult result) {
+        Payment payment = paymentRepository.findForUpdateById(paymentId)
+                .orElseThrow(() -> new NotFoundException("Payment not found with id: " + paymentId));
+        if (payment.getStatus() != Payment.PaymentStatus.PROCESSING) {
+            log.warn("Ignoring processor outcome for payment {} already in status {}", paymentId, payment.getStatus());
+            return payment;
+        }
+
+        if (result.approved()) {
+            String transactionId = result.transactionId();
+            payment.setStatus(Payment.PaymentStatus.COMPLETED);
+            payment.setTransactionId(transactionId);
+            Payment completedPayment = paymentRepository.save(payment);
+
+            transactionService.logTransaction(payment.getId(), Transaction.TransactionType.CHARGE,
+                    payment.getAmount(), transactionId);
+
+            auditService.logAction("PAYMENT_COMPLETED", payment.getId(),
+                    "Payment completed successfully. Transaction ID: " + transactionId);
+
+            paymentEventProducer.publishPaymentCompleted(completedPayment, transactionId);
+            statusNotifier.notifyAfterCommit(completedPayment);
+            log.info("Payment completed: {}", payment.getId());
+
+            return completedPayment;
+        } else {
+            payment.setStatus(Payment.PaymentStatus.FAILED);
+            Payment failedPayment = paymentRepository.save(payment);
+
+            auditService.logAction("PAYMENT_FAILED", payment.getId(),
+                    "Payment processing failed");
+
+            paymentEventProducer.publishPaymentFailed(failedPayment, result.declineReason());
+            statusNotifier.notifyAfterCommit(failedPayment);
+            log.error("Payment failed: {}", payment.getId());
+
+            return failedPayment;
+        }
+    }
+
+    private boolean acquirePermit() {
         try {
-            Thread.sleep(1000);
+            return processorPermits.tryAcquire(permitTimeoutMs, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            return false;
         }
+    }
 
-        return random.nextDouble() > 0.1;
+    private void recordLatency(String outcome, long elapsedNanos) {
+        Timer.builder("payment.processor.latency")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
     }
 }
@@ -0,0 +1,87 @@
+package com.neocommercepay.payment.service;
+
+import com.neocommercepay.payment.entity.Payment;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class PaymentStatusNotifier {
+
+    private final Map<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public PaymentStatusNotifier(MeterRegistry meterRegistry) {
+        Gauge.builder("payment.status.waiters", waiting, AtomicInteger::get)
+                .description("Requests parked waiting for a payment status change")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Optional<Payment>> register(Long paymentId, Payment.PaymentStatus knownStatus, long timeoutMs) {
+        Waiter waiter = new Waiter(knownStatus, new CompletableFuture<>());
+        waiters.compute(paymentId, (id, set) -> {
+            Set<Waiter> registered = set != null ? set : ConcurrentHashMap.newKeySet();
+            registered.add(waiter);
+            return registered;
+        });
+        waiting.incrementAndGet();
+
+        waiter.future()
+                .completeOnTimeout(Optional.empty(), timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    waiting.decrementAndGet();
+                    waiters.computeIfPresent(paymentId, (id, set) -> {
+                        set.remove(waiter);
+                        return set.isEmpty() ? null : set;
+                    });
+                });
+        return waiter.future();
+    }
+
+    public boolean hasWaiters(Long paymentId) {
+        return waiters.containsKey(paymentId);
+    }
+
+    public void notifyAfterCommit(Payment payment) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifyChanged(payment);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifyChanged(payment);
+            }
+        });
+    }
+
+    public void notifyChanged(Payment payment) {
+        List<Waiter> woken = new ArrayList<>();
+        waiters.computeIfPresent(payment.getId(), (id, set) -> {
+            set.removeIf(waiter -> {
+                if (waiter.knownStatus() == payment.getStatus()) {
+                    return false;
+                }
+                woken.add(waiter);
+                return true;
+            });
+            return set.isEmpty() ? null : set;
+        });
+        woken.forEach(waiter -> waiter.future().complete(Optional.of(payment)));
+    }
+
+    private record Waiter(Payment.PaymentStatus knownStatus, CompletableFuture<Optional<Payment>> future) {
+    }
+}
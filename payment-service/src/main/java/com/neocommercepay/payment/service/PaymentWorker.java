@@ -0,0 +1,122 @@
+package com.neocommercepay.payment.service;
+
+import com.neocommercepay.payment.entity.Payment;
+import com.neocommercepay.payment.gateway.ProcessorCircuitBreaker;
+import com.neocommercepay.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "payment.worker.enabled", havingValue = "true")
+public class PaymentWorker {
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final Semaphore processorPermits;
+    private final ProcessorCircuitBreaker circuitBreaker;
+    private final String workerId;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Timer claimTimer;
+    private final Counter claimedCounter;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter deferredCounter;
+
+    @Value("${payment.worker.batch-size:20}")
+    private int batchSize;
+
+    @Value("${payment.worker.lease-seconds:60}")
+    private long leaseSeconds;
+
+    public PaymentWorker(PaymentService paymentService,
+                         PaymentRepository paymentRepository,
+                         Semaphore processorPermits,
+                         ProcessorCircuitBreaker circuitBreaker,
+                         MeterRegistry meterRegistry,
+                         @Value("${spring.application.name}") String applicationName) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.processorPermits = processorPermits;
+        this.circuitBreaker = circuitBreaker;
+        this.workerId = applicationName + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.claimTimer = meterRegistry.timer("payment.worker.claim");
+        this.claimedCounter = meterRegistry.counter("payment.worker.claimed");
+        this.completedCounter = meterRegistry.counter("payment.worker.processed", "outcome", "completed");
+        this.failedCounter = meterRegistry.counter("payment.worker.processed", "outcome", "failed");
+        this.deferredCounter = meterRegistry.counter("payment.worker.processed", "outcome", "deferred");
+        Gauge.builder("payment.worker.backlog", backlog, AtomicLong::get)
+                .description("Payments waiting in INITIATED status")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.worker.poll-interval-ms:500}")
+    public void poll() {
+        int permits = 0;
+        while (permits < batchSize && circuitBreaker.tryAcquire()) {
+            if (!processorPermits.tryAcquire()) {
+                circuitBreaker.release();
+                break;
+            }
+            permits++;
+        }
+        if (permits == 0) {
+            return;
+        }
+
+        List<Payment> claimed;
+        try {
+            int limit = permits;
+            claimed = claimTimer.record(() ->
+                    paymentService.claimForProcessing(limit, workerId, Duration.ofSeconds(leaseSeconds)));
+        } catch (RuntimeException e) {
+            releaseUnused(permits);
+            log.error("Failed to claim payments for processing", e);
+            return;
+        }
+
+        releaseUnused(permits - claimed.size());
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        claimedCounter.increment(claimed.size());
+        log.debug("Worker {} claimed {} payments", workerId, claimed.size());
+        for (Payment payment : claimed) {
+            paymentService.dispatch(payment).whenComplete((result, error) -> {
+                if (error != null || result.getStatus() == Payment.PaymentStatus.PROCESSING) {
+                    deferredCounter.increment();
+                } else if (result.getStatus() == Payment.PaymentStatus.COMPLETED) {
+                    completedCounter.increment();
+                } else {
+                    failedCounter.increment();
+                }
+            });
+        }
+    }
+
+    private void releaseUnused(int permits) {
+        processorPermits.release(permits);
+        for (int i = 0; i < permits; i++) {
+            circuitBreaker.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.worker.backlog-refresh-ms:15000}")
+    public void refreshBacklog() {
+        backlog.set(paymentRepository.countByStatus(Payment.PaymentStatus.INITIATED));
+    }
+}
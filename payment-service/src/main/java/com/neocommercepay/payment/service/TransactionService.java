@@ -15,6 +15,7 @@ import java.util.List;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
 
     public Transaction logTransaction(Long paymentId, Transaction.TransactionType type,
                                     BigDecimal amount, String transactionId) {
@@ -26,6 +27,7 @@ public class TransactionService {
                 .build();
 
         Transaction saved = transactionRepository.save(transaction);
+        ledgerService.post(new LedgerPosting(paymentId, type, amount, transactionId));
         log.info("Transaction logged: {} for payment: {}", type, paymentId);
         return saved;
     }
@@ -0,0 +1,33 @@
+package com.neocommercepay.product.controller;
+
+import com.neocommercepay.product.document.Inventory;
+import com.neocommercepay.product.service.InventoryService;
+import com.neocommercepay.product.service.InventoryShardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+@Tag(name = "Inventory Management", description = "Stock levels and hot product sharding")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+    private final InventoryShardService inventoryShardService;
+
+    @GetMapping("/{productId}")
+    @Operation(summary = "Get inventory", description = "Retrieve stock levels for a product, aggregated across shards")
+    public ResponseEntity<Inventory> getInventory(@PathVariable String productId) {
+        return ResponseEntity.ok(inventoryService.getInventoryByProductId(productId));
+    }
+
+    @PostMapping("/{productId}/shards")
+    @Operation(summary = "Shard inventory", description = "Split a hot product's stock across sub-counters")
+    public ResponseEntity<Inventory> enableSharding(@PathVariable String productId,
+                                                    @RequestParam(defaultValue = "8") int count) {
+        return ResponseEntity.ok(inventoryShardService.enableSharding(productId, count));
+    }
+}
@@ -1,13 +1,16 @@
 package com.neocommercepay.product.controller;
 
+import com.neocommercepay.common.dto.product.ProductPageResponse;
+import com.neocommercepay.common.dto.product.ProductSuggestionResponse;
 import com.neocommercepay.product.document.Product;
+import com.neocommercepay.product.service.ProductCursor;
 import com.neocommercepay.product.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -37,20 +40,47 @@ public class ProductController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieve paginated list of all products")
-    public ResponseEntity<Page<Product>> getAllProducts(
+    @Operation(summary = "Get all products", description = "Retrieve a page of the catalog, continuing from an optional cursor")
+    public ResponseEntity<ProductPageResponse> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "ID") ProductCursor.SortField sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        ProductPageResponse response = productService.getAllProducts(cursor, size, sort, direction, includeTotal);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/category/{categoryId}")
+    @Operation(summary = "Get products by category", description = "Retrieve a page of a category's products, continuing from an optional cursor")
+    public ResponseEntity<ProductPageResponse> getProductsByCategory(
+            @PathVariable String categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "ID") ProductCursor.SortField sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        ProductPageResponse response = productService.getProductsByCategory(
+                categoryId, cursor, size, sort, direction, includeTotal);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products", description = "Ranked full-text search over name, description and category")
+    public ResponseEntity<Page<Product>> searchProducts(
+            @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.getAllProducts(pageable);
+        Page<Product> products = productService.searchProducts(name, PageRequest.of(page, size));
         return ResponseEntity.ok(products);
     }
 
-    @GetMapping("/search")
-    @Operation(summary = "Search products", description = "Search products by name")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String name) {
-        List<Product> products = productService.searchProducts(name);
-        return ResponseEntity.ok(products);
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete products", description = "Popularity-ranked product name suggestions for a prefix")
+    public ResponseEntity<List<ProductSuggestionResponse>> autocompleteProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
     }
 
     @PutMapping("/{id}")
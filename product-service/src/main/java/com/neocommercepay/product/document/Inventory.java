@@ -1,13 +1,17 @@
 package com.neocommercepay.product.document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @Document(collection = "inventory")
 @Data
@@ -16,12 +20,26 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Inventory {
 
+    public static final int MAX_HOLDS = 5000;
+
     @Id
     private String id;
 
+    @Indexed(unique = true)
     private String productId;
     private Integer quantity;
     private Integer reservedQuantity;
     private Integer availableQuantity;
     private LocalDateTime lastUpdated;
+    @JsonIgnore
+    private Map<String, Integer> holds;
+    private Integer holdCount;
+
+    @JsonIgnore
+    private List<String> pendingTransfers;
+    private Integer shardCount;
+
+    public boolean isSharded() {
+        return shardCount != null && shardCount > 0;
+    }
 }
@@ -0,0 +1,43 @@
+package com.neocommercepay.product.document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Document(collection = "inventory_shards")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryShard {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String productId;
+    private Integer shard;
+    private Integer quantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+    private LocalDateTime lastUpdated;
+    @JsonIgnore
+    private Map<String, Integer> holds;
+    private Integer holdCount;
+
+    @JsonIgnore
+    private List<String> pendingTransfers;
+
+    public static String idOf(String productId, int shard) {
+        return productId + ":" + shard;
+    }
+}
@@ -0,0 +1,40 @@
+package com.neocommercepay.product.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Document(collection = "inventory_transfers")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTransfer {
+
+    @Id
+    private String id;
+
+    private String productId;
+    private String sourceShardId;
+    private Integer quantity;
+    private Map<String, Integer> credits;
+    private State state;
+
+    @Indexed
+    private LocalDateTime createdAt;
+
+    public boolean isFromMaster() {
+        return sourceShardId == null;
+    }
+
+    public enum State {
+        PENDING, APPLIED
+    }
+}
@@ -5,12 +5,21 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Document(collection = "products")
+@CompoundIndexes({
+        @CompoundIndex(name = "name_id", def = "{'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "created_at_id", def = "{'createdAt': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_id_id", def = "{'categoryId': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_name_id", def = "{'categoryId': 1, 'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_created_at_id", def = "{'categoryId': 1, 'createdAt': 1, '_id': 1}")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,55 @@
+package com.neocommercepay.product.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Document(collection = "stock_reservations")
+@CompoundIndex(name = "status_expires_at", def = "{'status': 1, 'expiresAt': 1}")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    public static final Duration RETENTION = Duration.ofDays(7);
+
+    @Id
+    private Long orderId;
+
+    private List<Item> items;
+    private Status status;
+    private List<String> rejectedProductIds;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Indexed(name = "purge_at_ttl", expireAfterSeconds = 0)
+    private LocalDateTime purgeAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String productId;
+        private Integer quantity;
+    }
+
+    public enum Status {
+        PENDING, RESERVED, COMMIT_REQUESTED, REJECTED, COMMITTED, RELEASED, EXPIRED;
+
+        public boolean isTerminal() {
+            return this == REJECTED || this == COMMITTED || this == RELEASED || this == EXPIRED;
+        }
+    }
+}
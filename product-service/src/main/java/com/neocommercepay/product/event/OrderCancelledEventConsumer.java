@@ -0,0 +1,41 @@
+package com.neocommercepay.product.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.common.constants.KafkaTopics;
+import com.neocommercepay.common.event.OrderCancelledEvent;
+import com.neocommercepay.product.document.StockReservation;
+import com.neocommercepay.product.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderCancelledEventConsumer {
+
+    private final InventoryService inventoryService;
+    private final RetryTemplate retryTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @KafkaListener(topics = KafkaTopics.ORDER_CANCELLED, groupId = "product-service")
+    public void consumeOrderCancelled(String message, Acknowledgment acknowledgment) {
+        try {
+            OrderCancelledEvent event = objectMapper.readValue(message, OrderCancelledEvent.class);
+            log.info("Received OrderCancelledEvent for order: {}", event.getOrderId());
+
+            retryTemplate.execute(context -> {
+                inventoryService.releaseReservation(event.getOrderId(), StockReservation.Status.RELEASED);
+                return null;
+            });
+
+            acknowledgment.acknowledge();
+        } catch (Exception e) {
+            log.error("Error processing OrderCancelledEvent", e);
+            acknowledgment.acknowledge();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.neocommercepay.product.event;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neocommercepay.common.constants.KafkaTopics;
 import com.neocommercepay.common.event.OrderCreatedEvent;
+import com.neocommercepay.product.document.StockReservation;
 import com.neocommercepay.product.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +12,9 @@ import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -26,12 +30,10 @@ public class OrderCreatedEventConsumer {
             OrderCreatedEvent event = objectMapper.readValue(message, OrderCreatedEvent.class);
             log.info("Received OrderCreatedEvent for order: {}", event.getOrderId());
 
-            retryTemplate.execute(context -> {
-                event.getItems().forEach(item -> {
-                    inventoryService.decrementStock(item.getProductId(), item.getQuantity());
-                });
-                return null;
-            });
+            List<StockReservation.Item> items = event.getItems().stream()
+                    .map(item -> new StockReservation.Item(item.getProductId(), item.getQuantity()))
+                    .collect(Collectors.toList());
+            retryTemplate.execute(context -> inventoryService.reserveForOrder(event.getOrderId(), items));
 
             acknowledgment.acknowledge();
             log.info("Successfully processed OrderCreatedEvent for order: {}", event.getOrderId());
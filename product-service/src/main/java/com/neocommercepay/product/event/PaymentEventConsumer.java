@@ -0,0 +1,60 @@
+package com.neocommercepay.product.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.common.constants.KafkaTopics;
+import com.neocommercepay.common.event.PaymentCompletedEvent;
+import com.neocommercepay.common.event.PaymentFailedEvent;
+import com.neocommercepay.product.document.StockReservation;
+import com.neocommercepay.product.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentEventConsumer {
+
+    private final InventoryService inventoryService;
+    private final RetryTemplate retryTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @KafkaListener(topics = KafkaTopics.PAYMENT_COMPLETED, groupId = "product-service")
+    public void consumePaymentCompleted(String message, Acknowledgment acknowledgment) {
+        try {
+            PaymentCompletedEvent event = objectMapper.readValue(message, PaymentCompletedEvent.class);
+            log.info("Received PaymentCompletedEvent for order: {}", event.getOrderId());
+
+            retryTemplate.execute(context -> {
+                inventoryService.commitReservation(event.getOrderId());
+                return null;
+            });
+
+            acknowledgment.acknowledge();
+        } catch (Exception e) {
+            log.error("Error processing PaymentCompletedEvent", e);
+            acknowledgment.acknowledge();
+        }
+    }
+
+    @KafkaListener(topics = KafkaTopics.PAYMENT_FAILED, groupId = "product-service")
+    public void consumePaymentFailed(String message, Acknowledgment acknowledgment) {
+        try {
+            PaymentFailedEvent event = objectMapper.readValue(message, PaymentFailedEvent.class);
+            log.info("Received PaymentFailedEvent for order: {}", event.getOrderId());
+
+            retryTemplate.execute(context -> {
+                inventoryService.releaseReservation(event.getOrderId(), StockReservation.Status.RELEASED);
+                return null;
+            });
+
+            acknowledgment.acknowledge();
+        } catch (Exception e) {
+            log.error("Error processing PaymentFailedEvent", e);
+            acknowledgment.acknowledge();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.neocommercepay.product.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.common.constants.KafkaTopics;
+import com.neocommercepay.product.service.ProductReadCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheInvalidationConsumer {
+
+    private final ProductReadCache productReadCache;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @KafkaListener(topics = {KafkaTopics.PRODUCT_CREATED, KafkaTopics.PRODUCT_UPDATED, KafkaTopics.PRODUCT_DELETED},
+            groupId = "${product.cache.invalidation.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void consumeProductChanged(String message, Acknowledgment acknowledgment) {
+        try {
+            JsonNode productId = objectMapper.readTree(message).get("productId");
+            if (productId != null && !productId.isNull()) {
+                productReadCache.invalidate(productId.asText());
+                log.debug("Invalidated cached product: {}", productId.asText());
+            }
+        } catch (Exception e) {
+            log.error("Error invalidating cached product", e);
+        }
+        acknowledgment.acknowledge();
+    }
+}
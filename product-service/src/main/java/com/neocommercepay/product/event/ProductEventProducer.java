@@ -10,6 +10,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -73,4 +74,17 @@ public class ProductEventProducer {
         kafkaTemplate.send(KafkaTopics.INVENTORY_DEPLETED, event);
         log.warn("Published InventoryDepletedEvent for product: {} (stock: {})", productId, currentStock);
     }
+
+    public void publishStockShortfall(Long orderId, List<String> productIds, String reason) {
+        StockShortfallEvent event = StockShortfallEvent.builder()
+                .orderId(orderId)
+                .productIds(productIds)
+                .reason(reason)
+                .timestamp(LocalDateTime.now())
+                .correlationId(CorrelationIdUtil.get())
+                .build();
+
+        kafkaTemplate.send(KafkaTopics.INVENTORY_SHORTFALL, event);
+        log.warn("Published StockShortfallEvent for paid order: {} (products: {})", orderId, productIds);
+    }
 }
@@ -0,0 +1,59 @@
+package com.neocommercepay.product.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neocommercepay.common.constants.KafkaTopics;
+import com.neocommercepay.product.document.Product;
+import com.neocommercepay.product.repository.ProductRepository;
+import com.neocommercepay.product.service.ProductAutocompleteIndex;
+import com.neocommercepay.product.service.ProductSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndexConsumer {
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductAutocompleteIndex productAutocompleteIndex;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @KafkaListener(topics = {KafkaTopics.PRODUCT_CREATED, KafkaTopics.PRODUCT_UPDATED, KafkaTopics.PRODUCT_DELETED},
+            groupId = "${product.search.index.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void consumeProductChanged(String message,
+                                      @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                      Acknowledgment acknowledgment) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            String productId = text(event, "productId");
+            if (productId == null) {
+                log.warn("Ignoring {} event without productId", topic);
+            } else {
+                Product product = productRepository.findById(productId).orElse(null);
+                if (product == null) {
+                    productSearchIndex.remove(productId);
+                    productAutocompleteIndex.remove(productId);
+                } else {
+                    productSearchIndex.index(product);
+                    productAutocompleteIndex.put(product);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error applying product change to search index", e);
+        }
+        acknowledgment.acknowledge();
+    }
+
+    private static String text(JsonNode event, String field) {
+        JsonNode value = event.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -4,9 +4,14 @@ import com.neocommercepay.product.document.Inventory;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventoryRepository extends MongoRepository<Inventory, String> {
+public interface InventoryRepository extends MongoRepository<Inventory, String>, InventoryStockRepository {
     Optional<Inventory> findByProductId(String productId);
+    List<Inventory> findByProductIdInAndAvailableQuantityLessThanEqual(Collection<String> productIds, Integer threshold);
+    List<Inventory> findByProductIdInAndShardCountGreaterThan(Collection<String> productIds, Integer shardCount);
+    List<Inventory> findByShardCountGreaterThan(Integer shardCount);
 }
@@ -0,0 +1,12 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.InventoryShard;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryShardRepository extends MongoRepository<InventoryShard, String>, InventoryShardStockRepository {
+    List<InventoryShard> findByProductIdOrderByShardAsc(String productId);
+}
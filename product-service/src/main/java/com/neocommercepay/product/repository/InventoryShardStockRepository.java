@@ -0,0 +1,33 @@
+package com.neocommercepay.product.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface InventoryShardStockRepository {
+
+    void createShards(String productId, int shardCount);
+
+    boolean applyHold(String shardId, String holdKey, int quantity);
+
+    boolean isHolding(String productId, String holdKey);
+
+    Set<String> findHolding(String holdKey, Collection<String> productIds);
+
+    int releaseHolds(String holdKey, Map<String, Integer> quantities);
+
+    int commitHolds(String holdKey, Map<String, Integer> quantities);
+
+    boolean debitTransfer(String shardId, String transferId, int quantity);
+
+    void creditTransfer(String transferId, Map<String, Integer> quantitiesByShardId);
+
+    boolean hasTransfer(String shardId, String transferId);
+
+    void clearTransfer(String transferId, Collection<String> shardIds);
+
+    Map<String, ShardTotals> sumByProduct(Collection<String> productIds);
+
+    record ShardTotals(int quantity, int reservedQuantity, int availableQuantity) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.Inventory;
+import com.neocommercepay.product.document.InventoryShard;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class InventoryShardStockRepositoryImpl implements InventoryShardStockRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void createShards(String productId, int shardCount) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, InventoryShard.class);
+        for (int shard = 0; shard < shardCount; shard++) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(InventoryShard.idOf(productId, shard))),
+                    new Update()
+                            .setOnInsert("productId", productId)
+                            .setOnInsert("shard", shard)
+                            .setOnInsert("quantity", 0)
+                            .setOnInsert("reservedQuantity", 0)
+                            .setOnInsert("availableQuantity", 0)
+                            .setOnInsert("lastUpdated", now));
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public boolean applyHold(String shardId, String holdKey, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Hold quantity must be positive: " + quantity);
+        }
+        String holdField = "holds." + holdKey;
+        Query query = Query.query(Criteria.where("_id").is(shardId)
+                .and("availableQuantity").gte(quantity)
+                .and(holdField).exists(false)
+                .orOperator(Criteria.where("holdCount").exists(false),
+                        Criteria.where("holdCount").lt(Inventory.MAX_HOLDS)));
+        Update update = new Update()
+                .inc("availableQuantity", -quantity)
+                .inc("reservedQuantity", quantity)
+                .inc("holdCount", 1)
+                .set(holdField, quantity)
+                .set("lastUpdated", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, InventoryShard.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean isHolding(String productId, String holdKey) {
+        return mongoTemplate.exists(
+                Query.query(Criteria.where("productId").is(productId).and("holds." + holdKey).exists(true)),
+                InventoryShard.class);
+    }
+
+    @Override
+    public Set<String> findHolding(String holdKey, Collection<String> productIds) {
+        Query query = Query.query(Criteria.where("productId").in(productIds).and("holds." + holdKey).exists(true));
+        query.fields().include("productId");
+        return mongoTemplate.find(query, InventoryShard.class).stream()
+                .map(InventoryShard::getProductId)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public int releaseHolds(String holdKey, Map<String, Integer> quantities) {
+        return settleHolds(holdKey, quantities, false);
+    }
+
+    @Override
+    public int commitHolds(String holdKey, Map<String, Integer> quantities) {
+        return settleHolds(holdKey, quantities, true);
+    }
+
+    private int settleHolds(String holdKey, Map<String, Integer> quantities, boolean commit) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        String holdField = "holds." + holdKey;
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, InventoryShard.class);
+        quantities.forEach((productId, quantity) -> bulk.updateOne(
+                Query.query(Criteria.where("productId").is(productId).and(holdField).exists(true)),
+                new Update()
+                        .inc(commit ? "quantity" : "availableQuantity", commit ? -quantity : quantity)
+                        .inc("reservedQuantity", -quantity)
+                        .inc("holdCount", -1)
+                        .unset(holdField)
+                        .set("lastUpdated", now)));
+        return bulk.execute().getMatchedCount();
+    }
+
+    @Override
+    public boolean debitTransfer(String shardId, String transferId, int quantity) {
+        Query query = Query.query(Criteria.where("_id").is(shardId)
+                .and("availableQuantity").gte(quantity)
+                .and("pendingTransfers").ne(transferId));
+        Update update = new Update()
+                .inc("quantity", -quantity)
+                .inc("availableQuantity", -quantity)
+                .push("pendingTransfers", transferId)
+                .set("lastUpdated", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, InventoryShard.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void creditTransfer(String transferId, Map<String, Integer> quantitiesByShardId) {
+        if (quantitiesByShardId.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, InventoryShard.class);
+        quantitiesByShardId.forEach((shardId, quantity) -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(shardId).and("pendingTransfers").ne(transferId)),
+                new Update()
+                        .inc("quantity", quantity)
+                        .inc("availableQuantity", quantity)
+                        .push("pendingTransfers", transferId)
+                        .set("lastUpdated", now)));
+        bulk.execute();
+    }
+
+    @Override
+    public boolean hasTransfer(String shardId, String transferId) {
+        return mongoTemplate.exists(
+                Query.query(Criteria.where("_id").is(shardId).and("pendingTransfers").is(transferId)),
+                InventoryShard.class);
+    }
+
+    @Override
+    public void clearTransfer(String transferId, Collection<String> shardIds) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(shardIds)),
+                new Update().pull("pendingTransfers", transferId), InventoryShard.class);
+    }
+
+    @Override
+    public Map<String, ShardTotals> sumByProduct(Collection<String> productIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("productId").in(productIds)),
+                Aggregation.group("productId")
+                        .sum("quantity").as("quantity")
+                        .sum("reservedQuantity").as("reservedQuantity")
+                        .sum("availableQuantity").as("availableQuantity"));
+
+        Map<String, ShardTotals> totals = new HashMap<>();
+        mongoTemplate.aggregate(aggregation, InventoryShard.class, Document.class).forEach(row ->
+                totals.put(row.getString("_id"), new ShardTotals(
+                        intValue(row, "quantity"),
+                        intValue(row, "reservedQuantity"),
+                        intValue(row, "availableQuantity"))));
+        return totals;
+    }
+
+    private static int intValue(Document row, String field) {
+        Number value = row.get(field, Number.class);
+        return value != null ? value.intValue() : 0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.Inventory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface InventoryStockRepository {
+
+    Set<String> applyHolds(String holdKey, Map<String, Integer> quantities);
+
+    int releaseHolds(String holdKey, Map<String, Integer> quantities);
+
+    int commitHolds(String holdKey, Map<String, Integer> quantities);
+
+    Optional<Inventory> markSharded(String productId, int shardCount);
+
+    boolean debitTransfer(String productId, String transferId, int quantity);
+
+    boolean hasTransfer(String productId, String transferId);
+
+    void clearTransfer(String productId, String transferId);
+}
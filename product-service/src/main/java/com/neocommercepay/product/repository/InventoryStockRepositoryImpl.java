@@ -0,0 +1,125 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.Inventory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class InventoryStockRepositoryImpl implements InventoryStockRepository {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Set<String> applyHolds(String holdKey, Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Set.of();
+        }
+        if (quantities.values().stream().anyMatch(quantity -> quantity <= 0)) {
+            throw new IllegalArgumentException("Hold quantities must be positive: " + quantities);
+        }
+        String holdField = "holds." + holdKey;
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class);
+        quantities.forEach((productId, quantity) -> bulk.updateOne(
+                Query.query(Criteria.where("productId").is(productId)
+                        .and("availableQuantity").gte(quantity)
+                        .and(holdField).exists(false)
+                        .orOperator(Criteria.where("holdCount").exists(false),
+                                Criteria.where("holdCount").lt(Inventory.MAX_HOLDS))),
+                new Update()
+                        .inc("availableQuantity", -quantity)
+                        .inc("reservedQuantity", quantity)
+                        .inc("holdCount", 1)
+                        .set(holdField, quantity)
+                        .set("lastUpdated", now)));
+        if (bulk.execute().getMatchedCount() == quantities.size()) {
+            return quantities.keySet();
+        }
+        return findHolding(holdKey, quantities.keySet());
+    }
+
+    private Set<String> findHolding(String holdKey, Collection<String> productIds) {
+        Query query = Query.query(Criteria.where("productId").in(productIds).and("holds." + holdKey).exists(true));
+        query.fields().include("productId");
+        return mongoTemplate.find(query, Inventory.class).stream()
+                .map(Inventory::getProductId)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public int releaseHolds(String holdKey, Map<String, Integer> quantities) {
+        return settleHolds(holdKey, quantities, false);
+    }
+
+    @Override
+    public int commitHolds(String holdKey, Map<String, Integer> quantities) {
+        return settleHolds(holdKey, quantities, true);
+    }
+
+    @Override
+    public Optional<Inventory> markSharded(String productId, int shardCount) {
+        Query query = Query.query(Criteria.where("productId").is(productId).and("shardCount").exists(false));
+        Update update = new Update()
+                .set("shardCount", shardCount)
+                .set("lastUpdated", LocalDateTime.now());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, Inventory.class));
+    }
+
+    @Override
+    public boolean debitTransfer(String productId, String transferId, int quantity) {
+        Query query = Query.query(Criteria.where("productId").is(productId)
+                .and("availableQuantity").gte(quantity)
+                .and("pendingTransfers").ne(transferId));
+        Update update = new Update()
+                .inc("quantity", -quantity)
+                .inc("availableQuantity", -quantity)
+                .push("pendingTransfers", transferId)
+                .set("lastUpdated", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, Inventory.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean hasTransfer(String productId, String transferId) {
+        return mongoTemplate.exists(
+                Query.query(Criteria.where("productId").is(productId).and("pendingTransfers").is(transferId)),
+                Inventory.class);
+    }
+
+    @Override
+    public void clearTransfer(String productId, String transferId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("productId").is(productId)),
+                new Update().pull("pendingTransfers", transferId), Inventory.class);
+    }
+
+    private int settleHolds(String holdKey, Map<String, Integer> quantities, boolean commit) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        String holdField = "holds." + holdKey;
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class);
+        quantities.forEach((productId, quantity) -> bulk.updateOne(
+                Query.query(Criteria.where("productId").is(productId).and(holdField).exists(true)),
+                new Update()
+                        .inc(commit ? "quantity" : "availableQuantity", commit ? -quantity : quantity)
+                        .inc("reservedQuantity", -quantity)
+                        .inc("holdCount", -1)
+                        .unset(holdField)
+                        .set("lastUpdated", now)));
+        return bulk.execute().getMatchedCount();
+    }
+}
@@ -0,0 +1,13 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.InventoryTransfer;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryTransferRepository extends MongoRepository<InventoryTransfer, String> {
+    List<InventoryTransfer> findByCreatedAtBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,15 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.Product;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface ProductListingRepository {
+
+    List<Product> findListing(Listing listing);
+
+    record Listing(String categoryId, String sortField, Sort.Direction direction,
+                   String afterId, Object afterValue, int limit) {
+    }
+}
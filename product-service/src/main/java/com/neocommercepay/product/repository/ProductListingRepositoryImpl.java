@@ -0,0 +1,55 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ProductListingRepositoryImpl implements ProductListingRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Product> findListing(Listing listing) {
+        Query query = new Query();
+        if (listing.categoryId() != null) {
+            query.addCriteria(Criteria.where("categoryId").is(listing.categoryId()));
+        }
+        String field = listing.sortField();
+        if (listing.afterId() != null) {
+            query.addCriteria(after(field, listing.direction() == Sort.Direction.ASC,
+                    listing.afterId(), listing.afterValue()));
+        }
+
+        query.with(field.equals("_id")
+                ? Sort.by(listing.direction(), "_id")
+                : Sort.by(listing.direction(), field, "_id"));
+        query.limit(listing.limit());
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    private static Criteria after(String field, boolean ascending, String afterId, Object value) {
+        Criteria pastId = ascending ? Criteria.where("_id").gt(afterId) : Criteria.where("_id").lt(afterId);
+        if (field.equals("_id")) {
+            return pastId;
+        }
+
+        if (value == null) {
+            Criteria sameNull = new Criteria().andOperator(Criteria.where(field).is(null), pastId);
+            return ascending
+                    ? new Criteria().orOperator(sameNull, Criteria.where(field).ne(null))
+                    : sameNull;
+        }
+
+        Criteria pastValue = ascending ? Criteria.where(field).gt(value) : Criteria.where(field).lt(value);
+        Criteria sameValue = new Criteria().andOperator(Criteria.where(field).is(value), pastId);
+        return ascending
+                ? new Criteria().orOperator(pastValue, sameValue)
+                : new Criteria().orOperator(pastValue, sameValue, Criteria.where(field).is(null));
+    }
+}
@@ -6,11 +6,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 @Repository
-public interface ProductRepository extends MongoRepository<Product, String> {
-    Page<Product> findByCategoryId(String categoryId, Pageable pageable);
-    List<Product> findByNameContainingIgnoreCase(String name);
+public interface ProductRepository extends MongoRepository<Product, String>, ProductListingRepository {
+    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
     Page<Product> findAll(Pageable pageable);
 }
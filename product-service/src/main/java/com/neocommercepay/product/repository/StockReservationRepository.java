@@ -0,0 +1,16 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends MongoRepository<StockReservation, Long>, StockReservationStateRepository {
+    List<StockReservation> findByStatusInAndExpiresAtBefore(Collection<StockReservation.Status> statuses,
+                                                            LocalDateTime cutoff, Pageable pageable);
+}
@@ -0,0 +1,21 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.StockReservation;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockReservationStateRepository {
+
+    Optional<StockReservation> transition(Long orderId, Collection<StockReservation.Status> from,
+                                          StockReservation.Status to);
+
+    Optional<StockReservation> reject(Long orderId, Collection<StockReservation.Status> from,
+                                      List<String> rejectedProductIds);
+
+    Optional<StockReservation> requestCommit(Long orderId);
+
+    Optional<StockReservation> attachItems(Long orderId, List<StockReservation.Item> items, LocalDateTime expiresAt);
+}
@@ -0,0 +1,81 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.StockReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class StockReservationStateRepositoryImpl implements StockReservationStateRepository {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<StockReservation> transition(Long orderId, Collection<StockReservation.Status> from,
+                                                 StockReservation.Status to) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", to)
+                .set("updatedAt", now);
+        if (to.isTerminal()) {
+            update.set("purgeAt", now.plus(StockReservation.RETENTION));
+        } else {
+            update.unset("purgeAt");
+        }
+        return modify(orderId, from, update);
+    }
+
+    @Override
+    public Optional<StockReservation> reject(Long orderId, Collection<StockReservation.Status> from,
+                                             List<String> rejectedProductIds) {
+        LocalDateTime now = LocalDateTime.now();
+        return modify(orderId, from, new Update()
+                .set("status", StockReservation.Status.REJECTED)
+                .set("rejectedProductIds", rejectedProductIds)
+                .set("updatedAt", now)
+                .set("purgeAt", now.plus(StockReservation.RETENTION)));
+    }
+
+    @Override
+    public Optional<StockReservation> requestCommit(Long orderId) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("_id").is(orderId).and("status").is(StockReservation.Status.PENDING));
+        Update update = new Update()
+                .set("status", StockReservation.Status.COMMIT_REQUESTED)
+                .set("updatedAt", now)
+                .setOnInsert("createdAt", now);
+        try {
+            return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true).upsert(true), StockReservation.class));
+        } catch (DuplicateKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<StockReservation> attachItems(Long orderId, List<StockReservation.Item> items,
+                                                  LocalDateTime expiresAt) {
+        Query query = Query.query(Criteria.where("_id").is(orderId).and("items").exists(false));
+        Update update = new Update()
+                .set("items", items)
+                .set("expiresAt", expiresAt)
+                .set("updatedAt", LocalDateTime.now());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, StockReservation.class));
+    }
+
+    private Optional<StockReservation> modify(Long orderId, Collection<StockReservation.Status> from, Update update) {
+        Query query = Query.query(Criteria.where("_id").is(orderId).and("status").in(from));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, StockReservation.class));
+    }
+}
@@ -3,21 +3,55 @@ package com.neocommercepay.product.service;
 import com.neocommercepay.common.exception.BusinessException;
 import com.neocommercepay.common.exception.NotFoundException;
 import com.neocommercepay.product.document.Inventory;
+import com.neocommercepay.product.document.StockReservation;
 import com.neocommercepay.product.event.ProductEventProducer;
 import com.neocommercepay.product.repository.InventoryRepository;
-import lombok.RequiredArgsConstructor;
+import com.neocommercepay.product.repository.StockReservationRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class InventoryService {
 
+    private static final int LOW_STOCK_THRESHOLD = 5;
+
     private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository reservationRepository;
+    private final InventoryShardService shardService;
     private final ProductEventProducer productEventProducer;
+    private final ProductAutocompleteIndex productAutocompleteIndex;
+    private final Duration reservationTtl;
+
+    public InventoryService(InventoryRepository inventoryRepository,
+                            StockReservationRepository reservationRepository,
+                            InventoryShardService shardService,
+                            ProductEventProducer productEventProducer,
+                            ProductAutocompleteIndex productAutocompleteIndex,
+                            @Value("${inventory.reservation.ttl-minutes:60}") long reservationTtlMinutes) {
+        this.inventoryRepository = inventoryRepository;
+        this.reservationRepository = reservationRepository;
+        this.shardService = shardService;
+        this.productEventProducer = productEventProducer;
+        this.productAutocompleteIndex = productAutocompleteIndex;
+        this.reservationTtl = Duration.ofMinutes(reservationTtlMinutes);
+    }
 
     public Inventory createInventory(String productId, Integer quantity) {
         Inventory inventory = Inventory.builder()
@@ -33,37 +67,204 @@ public class InventoryService {
 
     public Inventory getInventoryByProductId(String productId) {
         return inventoryRepository.findByProductId(productId)
+                .map(shardService::withShardTotals)
                 .orElseThrow(() -> new NotFoundException("Inventory not found for product: " + productId));
     }
 
-    public void decrementStock(String productId, Integer quantity) {
-        Inventory inventory = getInventoryByProductId(productId);
+    public StockReservation reserveForOrder(Long orderId, List<StockReservation.Item> items) {
+        if (items.stream().anyMatch(item -> item.getQuantity() == null || item.getQuantity() <= 0)) {
+            throw new BusinessException("Reserved quantities must be positive for order: " + orderId);
+        }
+        Map<String, Integer> quantities = quantitiesOf(items);
+        LocalDateTime now = LocalDateTime.now();
+
+        StockReservation reservation;
+        boolean resumed = false;
+        try {
+            reservation = reservationRepository.insert(StockReservation.builder()
+                    .orderId(orderId)
+                    .items(items)
+                    .status(StockReservation.Status.PENDING)
+                    .expiresAt(now.plus(reservationTtl))
+                    .createdAt(now)
+                    .build());
+        } catch (DuplicateKeyException e) {
+            reservation = reservationRepository.findById(orderId)
+                    .orElseThrow(() -> new BusinessException("Reservation for order " + orderId + " disappeared"));
+            if (reservation.getItems() == null) {
+                reservation = reservationRepository.attachItems(orderId, items, now.plus(reservationTtl))
+                        .orElse(reservation);
+            }
+            if (reservation.getStatus() != StockReservation.Status.PENDING
+                    && reservation.getStatus() != StockReservation.Status.COMMIT_REQUESTED) {
+                log.info("Stock reservation for order {} already {}", orderId, reservation.getStatus());
+                return reservation;
+            }
+            resumed = true;
+        }
+
+        String holdKey = String.valueOf(orderId);
+        Map<String, Integer> unsharded = quantities;
+        if (resumed) {
+            unsharded = new LinkedHashMap<>(quantities);
+            unsharded.keySet().removeAll(shardService.findHolding(holdKey, quantities.keySet()));
+        }
+        Set<String> holding = new HashSet<>(inventoryRepository.applyHolds(holdKey, unsharded));
+        if (holding.size() < quantities.size()) {
+            Map<String, Integer> unheld = new LinkedHashMap<>(quantities);
+            unheld.keySet().removeAll(holding);
+            holding.addAll(shardService.applyHolds(holdKey, unheld, resumed));
+        }
+        if (holding.size() < quantities.size()) {
+            Map<String, Integer> compensation = new LinkedHashMap<>(quantities);
+            compensation.keySet().retainAll(holding);
+            settleHolds(holdKey, compensation, false);
+
+            List<String> rejected = quantities.keySet().stream()
+                    .filter(productId -> !holding.contains(productId))
+                    .collect(Collectors.toList());
+            log.warn("Stock reservation for order {} rejected, insufficient stock for {}; released {} items",
+                    orderId, rejected, compensation.size());
+            return reservationRepository.reject(orderId, List.of(StockReservation.Status.PENDING), rejected)
+                    .or(() -> reservationRepository.reject(orderId,
+                                    List.of(StockReservation.Status.COMMIT_REQUESTED), rejected)
+                            .map(paid -> {
+                                productEventProducer.publishStockShortfall(orderId, rejected,
+                                        "Insufficient stock for paid order");
+                                return paid;
+                            }))
+                    .orElse(reservation);
+        }
+
+        Optional<StockReservation> reserved = reservationRepository.transition(orderId,
+                List.of(StockReservation.Status.PENDING), StockReservation.Status.RESERVED);
+        if (reserved.isEmpty()) {
+            Optional<StockReservation> committed = reservationRepository.transition(orderId,
+                    List.of(StockReservation.Status.COMMIT_REQUESTED), StockReservation.Status.COMMITTED);
+            if (committed.isPresent()) {
+                int settled = settleHolds(holdKey, quantities, true);
+                publishLowStock(quantities.keySet());
+                log.info("Stock reserved and committed for paid order {}: {} products", orderId, settled);
+                return committed.get();
+            }
+            int released = settleHolds(holdKey, quantities, false);
+            log.warn("Stock reservation for order {} was settled while it was being placed; returned {} products",
+                    orderId, released);
+            return reservationRepository.findById(orderId).orElse(reservation);
+        }
+
+        productAutocompleteIndex.recordDemand(quantities);
+        publishLowStock(quantities.keySet());
 
-        if (inventory.getAvailableQuantity() < quantity) {
-            throw new BusinessException("Insufficient stock for product: " + productId);
+        log.info("Stock reserved for order {}: {} products until {}",
+                orderId, quantities.size(), reserved.get().getExpiresAt());
+        return reserved.get();
+    }
+
+    public void commitReservation(Long orderId) {
+        Optional<StockReservation> committed = reservationRepository.transition(orderId,
+                List.of(StockReservation.Status.RESERVED), StockReservation.Status.COMMITTED);
+        if (committed.isEmpty()) {
+            if (reservationRepository.requestCommit(orderId).isPresent()) {
+                log.info("Stock reservation for order {} not placed yet, commit recorded", orderId);
+                return;
+            }
+            committed = reservationRepository.transition(orderId,
+                    List.of(StockReservation.Status.RESERVED), StockReservation.Status.COMMITTED);
         }
+        StockReservation reservation = committed
+                .or(() -> reservationRepository.findById(orderId))
+                .orElseThrow(() -> new BusinessException("Reservation for order " + orderId + " disappeared"));
 
-        inventory.setQuantity(inventory.getQuantity() - quantity);
-        inventory.setAvailableQuantity(inventory.getAvailableQuantity() - quantity);
-        inventory.setLastUpdated(LocalDateTime.now());
+        switch (reservation.getStatus()) {
+            case COMMITTED -> {
+                int settled = settleHolds(String.valueOf(orderId), quantitiesOf(reservation.getItems()), true);
+                log.info("Stock reservation committed for order {}: {} products", orderId, settled);
+            }
+            case COMMIT_REQUESTED -> log.debug("Commit already recorded for stock reservation of order {}", orderId);
+            case EXPIRED -> reacquire(reservation);
+            default -> {
+                List<String> productIds = reservation.getRejectedProductIds() != null
+                        ? reservation.getRejectedProductIds()
+                        : new ArrayList<>(quantitiesOf(reservation.getItems()).keySet());
+                productEventProducer.publishStockShortfall(orderId, productIds,
+                        "Stock reservation was " + reservation.getStatus() + " before payment completed");
+            }
+        }
+    }
 
-        inventoryRepository.save(inventory);
+    public void releaseReservation(Long orderId, StockReservation.Status outcome) {
+        StockReservation reservation = reservationRepository.transition(orderId,
+                        List.of(StockReservation.Status.PENDING, StockReservation.Status.RESERVED), outcome)
+                .or(() -> reservationRepository.findById(orderId))
+                .orElse(null);
+        if (reservation == null) {
+            log.debug("No stock reservation to release for order {}", orderId);
+            return;
+        }
 
-        if (inventory.getAvailableQuantity() <= 5) {
-            productEventProducer.publishInventoryDepleted(productId, inventory.getAvailableQuantity());
+        if (reservation.getStatus() == StockReservation.Status.RELEASED
+                || reservation.getStatus() == StockReservation.Status.EXPIRED) {
+            int released = settleHolds(String.valueOf(orderId), quantitiesOf(reservation.getItems()), false);
+            log.info("Stock reservation {} for order {}: {} products returned",
+                    reservation.getStatus(), orderId, released);
+        } else {
+            log.info("Stock reservation for order {} is {}, nothing to release", orderId, reservation.getStatus());
         }
+    }
+
+    public List<StockReservation> findExpiredReservations(int limit) {
+        return reservationRepository.findByStatusInAndExpiresAtBefore(
+                List.of(StockReservation.Status.PENDING, StockReservation.Status.RESERVED),
+                LocalDateTime.now(),
+                PageRequest.of(0, limit, Sort.by("expiresAt")));
+    }
 
-        log.info("Stock decremented for product {}: -{}", productId, quantity);
+    private void reacquire(StockReservation reservation) {
+        Long orderId = reservation.getOrderId();
+        if (reservationRepository.transition(orderId, List.of(StockReservation.Status.EXPIRED),
+                StockReservation.Status.COMMIT_REQUESTED).isEmpty()) {
+            log.info("Expired stock reservation for order {} was already picked up", orderId);
+            return;
+        }
+        StockReservation result = reserveForOrder(orderId, reservation.getItems());
+        log.info("Re-acquired expired stock reservation for paid order {}: {}", orderId, result.getStatus());
     }
 
-    public void incrementStock(String productId, Integer quantity) {
-        Inventory inventory = getInventoryByProductId(productId);
+    private int settleHolds(String holdKey, Map<String, Integer> quantities, boolean commit) {
+        int settled = commit
+                ? inventoryRepository.commitHolds(holdKey, quantities)
+                : inventoryRepository.releaseHolds(holdKey, quantities);
+        if (settled < quantities.size()) {
+            settled += commit
+                    ? shardService.commitHolds(holdKey, quantities)
+                    : shardService.releaseHolds(holdKey, quantities);
+        }
+        return settled;
+    }
 
-        inventory.setQuantity(inventory.getQuantity() + quantity);
-        inventory.setAvailableQuantity(inventory.getAvailableQuantity() + quantity);
-        inventory.setLastUpdated(LocalDateTime.now());
+    private void publishLowStock(Collection<String> productIds) {
+        List<Inventory> sharded = new ArrayList<>();
+        for (Inventory inventory : inventoryRepository.findByProductIdInAndAvailableQuantityLessThanEqual(
+                productIds, LOW_STOCK_THRESHOLD)) {
+            if (inventory.isSharded()) {
+                sharded.add(inventory);
+            } else {
+                productEventProducer.publishInventoryDepleted(inventory.getProductId(), inventory.getAvailableQuantity());
+            }
+        }
+        if (!sharded.isEmpty()) {
+            shardService.availableByProduct(sharded).forEach((productId, available) -> {
+                if (available <= LOW_STOCK_THRESHOLD) {
+                    productEventProducer.publishInventoryDepleted(productId, available);
+                }
+            });
+        }
+    }
 
-        inventoryRepository.save(inventory);
-        log.info("Stock incremented for product {}: +{}", productId, quantity);
+    private static Map<String, Integer> quantitiesOf(List<StockReservation.Item> items) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        items.forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        return quantities;
     }
 }
@@ -0,0 +1,350 @@
+package com.neocommercepay.product.service;
+
+import com.neocommercepay.common.exception.BusinessException;
+import com.neocommercepay.common.exception.NotFoundException;
+import com.neocommercepay.product.document.Inventory;
+import com.neocommercepay.product.document.InventoryShard;
+import com.neocommercepay.product.document.InventoryTransfer;
+import com.neocommercepay.product.repository.InventoryRepository;
+import com.neocommercepay.product.repository.InventoryShardRepository;
+import com.neocommercepay.product.repository.InventoryShardStockRepository;
+import com.neocommercepay.product.repository.InventoryTransferRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@Slf4j
+public class InventoryShardService {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryShardRepository shardRepository;
+    private final InventoryTransferRepository transferRepository;
+    private final Counter fallbackCounter;
+    private final Counter rebalanceCounter;
+    private final Counter recoveredCounter;
+    private final ExecutorService rebalanceExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("inventory-rebalance-"));
+    private final Set<String> pendingRebalances = ConcurrentHashMap.newKeySet();
+
+    @Value("${inventory.shards.max-count:64}")
+    private int maxShardCount;
+
+    @Value("${inventory.shards.rebalance-min-spread:10}")
+    private int rebalanceMinSpread;
+
+    @Value("${inventory.shards.transfer-stale-seconds:60}")
+    private long transferStaleSeconds;
+
+    public InventoryShardService(InventoryRepository inventoryRepository,
+                                 InventoryShardRepository shardRepository,
+                                 InventoryTransferRepository transferRepository,
+                                 MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        this.shardRepository = shardRepository;
+        this.transferRepository = transferRepository;
+        this.fallbackCounter = meterRegistry.counter("inventory.shards.fallback");
+        this.rebalanceCounter = meterRegistry.counter("inventory.shards.rebalanced");
+        this.recoveredCounter = meterRegistry.counter("inventory.shards.transfers.recovered");
+    }
+
+    public Inventory enableSharding(String productId, int shardCount) {
+        if (shardCount < 2 || shardCount > maxShardCount) {
+            throw new BusinessException("Shard count must be between 2 and " + maxShardCount);
+        }
+        Inventory current = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new NotFoundException("Inventory not found for product: " + productId));
+        if (current.isSharded()) {
+            throw new BusinessException("Inventory for product " + productId + " is already sharded");
+        }
+
+        shardRepository.createShards(productId, shardCount);
+        Inventory marked = inventoryRepository.markSharded(productId, shardCount)
+                .orElseThrow(() -> new BusinessException("Inventory for product " + productId + " is already sharded"));
+
+        int moved = 0;
+        for (int attempt = 0; attempt < 3 && marked.getAvailableQuantity() > 0; attempt++) {
+            int available = marked.getAvailableQuantity();
+            if (transfer(productId, null, split(productId, shardCount, available))) {
+                moved = available;
+                break;
+            }
+            marked = inventoryRepository.findByProductId(productId).orElse(marked);
+        }
+
+        log.info("Sharded inventory for product {} across {} counters ({} moved)", productId, shardCount, moved);
+        return withShardTotals(inventoryRepository.findByProductId(productId).orElse(marked));
+    }
+
+    public Set<String> applyHolds(String holdKey, Map<String, Integer> quantities, boolean resumed) {
+        Set<String> held = new HashSet<>();
+        for (Inventory inventory : inventoryRepository.findByProductIdInAndShardCountGreaterThan(quantities.keySet(), 0)) {
+            String productId = inventory.getProductId();
+            if (resumed && shardRepository.isHolding(productId, holdKey)) {
+                held.add(productId);
+                continue;
+            }
+
+            if (holdOnAnyShard(productId, inventory.getShardCount(), holdKey, quantities.get(productId))) {
+                held.add(productId);
+            } else {
+                requestRebalance(productId);
+            }
+        }
+        return held;
+    }
+
+    public Set<String> findHolding(String holdKey, Collection<String> productIds) {
+        return shardRepository.findHolding(holdKey, productIds);
+    }
+
+    public int releaseHolds(String holdKey, Map<String, Integer> quantities) {
+        return shardRepository.releaseHolds(holdKey, quantities);
+    }
+
+    public int commitHolds(String holdKey, Map<String, Integer> quantities) {
+        return shardRepository.commitHolds(holdKey, quantities);
+    }
+
+    public Inventory withShardTotals(Inventory inventory) {
+        if (!inventory.isSharded()) {
+            return inventory;
+        }
+        InventoryShardStockRepository.ShardTotals totals = shardRepository
+                .sumByProduct(List.of(inventory.getProductId()))
+                .get(inventory.getProductId());
+        if (totals != null) {
+            inventory.setQuantity(inventory.getQuantity() + totals.quantity());
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + totals.reservedQuantity());
+            inventory.setAvailableQuantity(inventory.getAvailableQuantity() + totals.availableQuantity());
+        }
+        return inventory;
+    }
+
+    public Map<String, Integer> availableByProduct(List<Inventory> shardedInventories) {
+        Map<String, Integer> available = new LinkedHashMap<>();
+        shardedInventories.forEach(inventory -> available.put(inventory.getProductId(), inventory.getAvailableQuantity()));
+        shardRepository.sumByProduct(available.keySet())
+                .forEach((productId, totals) -> available.merge(productId, totals.availableQuantity(), Integer::sum));
+        return available;
+    }
+
+    public void requestRebalance(String productId) {
+        if (!pendingRebalances.add(productId)) {
+            return;
+        }
+        rebalanceExecutor.execute(() -> {
+            pendingRebalances.remove(productId);
+            try {
+                rebalance(productId);
+            } catch (RuntimeException e) {
+                log.error("Failed to rebalance inventory shards for product {}", productId, e);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        recoverStaleTransfers();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.shards.rebalance-interval-ms:5000}")
+    public void rebalanceUneven() {
+        recoverStaleTransfers();
+        for (Inventory inventory : inventoryRepository.findByShardCountGreaterThan(0)) {
+            List<InventoryShard> shards = shardRepository.findByProductIdOrderByShardAsc(inventory.getProductId());
+            if (shards.isEmpty()) {
+                continue;
+            }
+            int min = Integer.MAX_VALUE;
+            int max = 0;
+            int total = 0;
+            for (InventoryShard shard : shards) {
+                min = Math.min(min, shard.getAvailableQuantity());
+                max = Math.max(max, shard.getAvailableQuantity());
+                total += shard.getAvailableQuantity();
+            }
+            int spreadLimit = Math.max(rebalanceMinSpread, total / shards.size() / 2);
+            if (inventory.getAvailableQuantity() > 0 || (max - min > spreadLimit)) {
+                requestRebalance(inventory.getProductId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebalanceExecutor.shutdown();
+    }
+
+    private void rebalance(String productId) {
+        List<InventoryShard> shards = shardRepository.findByProductIdOrderByShardAsc(productId);
+        if (shards.isEmpty()) {
+            return;
+        }
+
+        int masterAvailable = inventoryRepository.findByProductId(productId)
+                .map(Inventory::getAvailableQuantity)
+                .orElse(0);
+        int total = masterAvailable;
+        for (InventoryShard shard : shards) {
+            total += shard.getAvailableQuantity();
+        }
+        int target = total / shards.size();
+
+        Map<String, Integer> deficits = new LinkedHashMap<>();
+        for (InventoryShard shard : shards) {
+            if (shard.getAvailableQuantity() < target) {
+                deficits.put(shard.getId(), target - shard.getAvailableQuantity());
+            }
+        }
+
+        int moved = 0;
+        if (masterAvailable > 0) {
+            Map<String, Integer> credits = allocate(deficits, masterAvailable);
+            int remaining = masterAvailable - credits.values().stream().mapToInt(Integer::intValue).sum();
+            for (int i = 0; remaining > 0; i = (i + 1) % shards.size(), remaining--) {
+                credits.merge(shards.get(i).getId(), 1, Integer::sum);
+            }
+            if (transfer(productId, null, credits)) {
+                moved += masterAvailable;
+            }
+        }
+        for (InventoryShard shard : shards) {
+            int surplus = shard.getAvailableQuantity() - target;
+            if (surplus <= 0 || deficits.isEmpty()) {
+                continue;
+            }
+            Map<String, Integer> credits = allocate(deficits, surplus);
+            int quantity = credits.values().stream().mapToInt(Integer::intValue).sum();
+            if (quantity > 0 && transfer(productId, shard.getId(), credits)) {
+                moved += quantity;
+            }
+        }
+
+        if (moved > 0) {
+            rebalanceCounter.increment();
+            log.info("Rebalanced {} units across {} shards for product {}", moved, shards.size(), productId);
+        }
+    }
+
+    private boolean transfer(String productId, String sourceShardId, Map<String, Integer> credits) {
+        int quantity = credits.values().stream().mapToInt(Integer::intValue).sum();
+        InventoryTransfer transfer = transferRepository.insert(InventoryTransfer.builder()
+                .id(UUID.randomUUID().toString())
+                .productId(productId)
+                .sourceShardId(sourceShardId)
+                .quantity(quantity)
+                .credits(credits)
+                .state(InventoryTransfer.State.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        boolean debited = transfer.isFromMaster()
+                ? inventoryRepository.debitTransfer(productId, transfer.getId(), quantity)
+                : shardRepository.debitTransfer(sourceShardId, transfer.getId(), quantity);
+        if (!debited) {
+            transferRepository.delete(transfer);
+            return false;
+        }
+        complete(transfer);
+        return true;
+    }
+
+    private void complete(InventoryTransfer transfer) {
+        if (transfer.getState() == InventoryTransfer.State.PENDING) {
+            shardRepository.creditTransfer(transfer.getId(), transfer.getCredits());
+            transfer.setState(InventoryTransfer.State.APPLIED);
+            transferRepository.save(transfer);
+        }
+
+        Set<String> shardIds = new HashSet<>(transfer.getCredits().keySet());
+        if (transfer.isFromMaster()) {
+            inventoryRepository.clearTransfer(transfer.getProductId(), transfer.getId());
+        } else {
+            shardIds.add(transfer.getSourceShardId());
+        }
+        shardRepository.clearTransfer(transfer.getId(), shardIds);
+        transferRepository.delete(transfer);
+    }
+
+    private void recoverStaleTransfers() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(transferStaleSeconds);
+        for (InventoryTransfer transfer : transferRepository.findByCreatedAtBefore(cutoff)) {
+            boolean debited = transfer.getState() == InventoryTransfer.State.APPLIED
+                    || (transfer.isFromMaster()
+                    ? inventoryRepository.hasTransfer(transfer.getProductId(), transfer.getId())
+                    : shardRepository.hasTransfer(transfer.getSourceShardId(), transfer.getId()));
+            if (!debited) {
+                transferRepository.delete(transfer);
+                continue;
+            }
+            complete(transfer);
+            recoveredCounter.increment();
+            log.warn("Recovered interrupted inventory transfer {} of {} units for product {}",
+                    transfer.getId(), transfer.getQuantity(), transfer.getProductId());
+        }
+    }
+
+    private static Map<String, Integer> allocate(Map<String, Integer> deficits, int quantity) {
+        Map<String, Integer> credits = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, Integer>> iterator = deficits.entrySet().iterator();
+        while (quantity > 0 && iterator.hasNext()) {
+            Map.Entry<String, Integer> deficit = iterator.next();
+            int credit = Math.min(quantity, deficit.getValue());
+            credits.put(deficit.getKey(), credit);
+            quantity -= credit;
+            if (credit == deficit.getValue()) {
+                iterator.remove();
+            } else {
+                deficit.setValue(deficit.getValue() - credit);
+            }
+        }
+        return credits;
+    }
+
+    private boolean holdOnAnyShard(String productId, int shardCount, String holdKey, int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int offset = 0; offset < shardCount; offset++) {
+            int shard = (start + offset) % shardCount;
+            if (shardRepository.applyHold(InventoryShard.idOf(productId, shard), holdKey, quantity)) {
+                if (offset > 0) {
+                    fallbackCounter.increment(offset);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Integer> split(String productId, int shardCount, int quantity) {
+        Map<String, Integer> split = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            int share = quantity / shardCount + (shard < quantity % shardCount ? 1 : 0);
+            if (share > 0) {
+                split.put(InventoryShard.idOf(productId, shard), share);
+            }
+        }
+        return split;
+    }
+}
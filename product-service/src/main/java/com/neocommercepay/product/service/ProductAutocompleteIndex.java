@@ -0,0 +1,542 @@
+package com.neocommercepay.product.service;
+
+import com.neocommercepay.common.dto.product.ProductSuggestionResponse;
+import com.neocommercepay.product.document.Product;
+import com.neocommercepay.product.document.StockReservation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class ProductAutocompleteIndex {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_ENTRIES = new int[0];
+    private static final int NODE_BYTES = 112;
+    private static final int ENTRY_BYTES = 96;
+    private static final int EXPIRY_CHUNK_SIZE = 256;
+
+    private final MongoTemplate mongoTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Timer lookupTimer;
+    private final Counter rejectedCounter;
+
+    @Value("${product.autocomplete.top-k:10}")
+    private int topK;
+
+    @Value("${product.autocomplete.max-depth:32}")
+    private int maxDepth;
+
+    @Value("${product.autocomplete.max-token-keys:4}")
+    private int maxTokenKeys;
+
+    @Value("${product.autocomplete.memory-budget-bytes:67108864}")
+    private long memoryBudgetBytes;
+
+    @Value("${product.autocomplete.demand-slots:24}")
+    private int demandSlots;
+
+    @Value("${product.autocomplete.demand-slot-ms:3600000}")
+    private long demandSlotMillis;
+
+    @Value("${product.autocomplete.demand-max-products:100000}")
+    private int demandMaxProducts;
+
+    private Trie trie = new Trie();
+    private List<Runnable> changesDuringRebuild;
+    private DemandWindow demand;
+
+    public ProductAutocompleteIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.lookupTimer = meterRegistry.timer("product.autocomplete.lookup");
+        this.rejectedCounter = meterRegistry.counter("product.autocomplete.rejected");
+        Gauge.builder("product.autocomplete.memory.bytes", this, ProductAutocompleteIndex::estimatedBytes)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void loadDemand() {
+        DemandWindow window = new DemandWindow(demandSlots);
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(Criteria.where("status").in(StockReservation.Status.RESERVED,
+                        StockReservation.Status.COMMIT_REQUESTED, StockReservation.Status.COMMITTED)
+                .and("createdAt").gte(now.minus(Duration.ofMillis(demandSlotMillis * demandSlots))));
+        query.fields().include("items", "createdAt");
+        try (Stream<StockReservation> reservations = mongoTemplate.stream(query, StockReservation.class)) {
+            reservations.forEach(reservation -> {
+                int age = (int) (Duration.between(reservation.getCreatedAt(), now).toMillis() / demandSlotMillis);
+                reservation.getItems().forEach(item -> window.record(age, item.getProductId(), item.getQuantity()));
+            });
+        } catch (Exception e) {
+            log.error("Failed to load recent demand for product autocomplete", e);
+        }
+
+        lock.writeLock().lock();
+        try {
+            demand = window;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSuggestionResponse> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        long started = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Node node = trie.root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            int count = Math.min(Math.min(limit, topK), node.top.length);
+            List<ProductSuggestionResponse> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Entry entry = trie.entries.get(node.top[i]);
+                suggestions.add(ProductSuggestionResponse.builder()
+                        .productId(entry.productId)
+                        .name(entry.name)
+                        .build());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+            lookupTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void put(Product product) {
+        put(product.getId(), product.getName());
+    }
+
+    public void put(String productId, String name) {
+        mutate(current -> current.put(productId, name));
+    }
+
+    public void remove(String productId) {
+        mutate(current -> current.remove(productId));
+    }
+
+    public void recordDemand(Map<String, Integer> quantities) {
+        lock.writeLock().lock();
+        try {
+            Map<String, Long> counted = new HashMap<>();
+            quantities.forEach((productId, quantity) -> {
+                if (demand.record(0, productId, quantity)) {
+                    counted.put(productId, quantity.longValue());
+                }
+            });
+            mutate(current -> counted.forEach(current::addPopularity));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${product.autocomplete.demand-slot-ms:3600000}",
+            fixedRateString = "${product.autocomplete.demand-slot-ms:3600000}")
+    public void expireDemand() {
+        List<Map.Entry<String, Long>> expired;
+        lock.writeLock().lock();
+        try {
+            expired = new ArrayList<>(demand.rotate().entrySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (int from = 0; from < expired.size(); from += EXPIRY_CHUNK_SIZE) {
+            List<Map.Entry<String, Long>> chunk =
+                    expired.subList(from, Math.min(from + EXPIRY_CHUNK_SIZE, expired.size()));
+            lock.writeLock().lock();
+            try {
+                demand.forget(chunk);
+                mutate(current -> chunk.forEach(entry -> current.addPopularity(entry.getKey(), -entry.getValue())));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${product.autocomplete.rebuild-interval-ms:1800000}")
+    public void rebuild() {
+        Map<String, Long> popularity;
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+            popularity = demand.totals();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Trie fresh = new Trie();
+        try {
+            Query query = new Query();
+            query.fields().include("name");
+            try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+                products.forEach(product -> fresh.insert(product.getId(), product.getName(),
+                        popularity.getOrDefault(product.getId(), 0L), false));
+            }
+            fresh.computeTop(fresh.root);
+        } catch (Exception e) {
+            log.error("Failed to build product autocomplete index", e);
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            trie = fresh;
+            changesDuringRebuild.forEach(Runnable::run);
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built product autocomplete index: {} products, ~{} KB in {} ms",
+                fresh.ordinals.size(), fresh.estimatedBytes / 1024, System.currentTimeMillis() - started);
+    }
+
+    private void mutate(Consumer<Trie> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(trie);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(() -> change.accept(trie));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return trie.estimatedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String normalize(String text) {
+        String key = String.join(" ", SearchTextNormalizer.tokenize(text));
+        return key.length() > maxDepth ? key.substring(0, maxDepth) : key;
+    }
+
+    private final class DemandWindow {
+        private final List<Map<String, Long>> slots = new ArrayList<>();
+        private final Map<String, Long> totals = new HashMap<>();
+        private int current;
+
+        private DemandWindow(int slotCount) {
+            for (int i = 0; i < Math.max(1, slotCount); i++) {
+                slots.add(new HashMap<>());
+            }
+        }
+
+        private boolean record(int age, String productId, Integer quantity) {
+            if (age < 0 || age >= slots.size() || quantity == null || quantity <= 0
+                    || (!totals.containsKey(productId) && totals.size() >= demandMaxProducts)) {
+                return false;
+            }
+            slots.get(Math.floorMod(current - age, slots.size())).merge(productId, quantity.longValue(), Long::sum);
+            totals.merge(productId, quantity.longValue(), Long::sum);
+            return true;
+        }
+
+        private Map<String, Long> rotate() {
+            current = (current + 1) % slots.size();
+            return slots.set(current, new HashMap<>());
+        }
+
+        private void forget(List<Map.Entry<String, Long>> expired) {
+            expired.forEach(entry -> totals.computeIfPresent(entry.getKey(),
+                    (id, total) -> total > entry.getValue() ? total - entry.getValue() : null));
+        }
+
+        private Map<String, Long> totals() {
+            return new HashMap<>(totals);
+        }
+    }
+
+    private static final class Entry {
+        private final String productId;
+        private final String name;
+        private final String[] keys;
+        private double popularity;
+
+        private Entry(String productId, String name, String[] keys, double popularity) {
+            this.productId = productId;
+            this.name = name;
+            this.keys = keys;
+            this.popularity = popularity;
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int[] terminals = NO_ENTRIES;
+        private int[] top = NO_ENTRIES;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char label) {
+            int index = -Arrays.binarySearch(labels, label) - 1;
+            Node child = new Node();
+            char[] grownLabels = new char[labels.length + 1];
+            Node[] grownChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, grownLabels, 0, index);
+            System.arraycopy(children, 0, grownChildren, 0, index);
+            grownLabels[index] = label;
+            grownChildren[index] = child;
+            System.arraycopy(labels, index, grownLabels, index + 1, labels.length - index);
+            System.arraycopy(children, index, grownChildren, index + 1, children.length - index);
+            labels = grownLabels;
+            children = grownChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] shrunkLabels = new char[labels.length - 1];
+            Node[] shrunkChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, shrunkLabels, 0, index);
+            System.arraycopy(children, 0, shrunkChildren, 0, index);
+            System.arraycopy(labels, index + 1, shrunkLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, shrunkChildren, index, children.length - index - 1);
+            labels = shrunkLabels;
+            children = shrunkChildren;
+        }
+
+        private boolean isEmpty() {
+            return labels.length == 0 && terminals.length == 0;
+        }
+    }
+
+    private final class Trie {
+        private final Node root = new Node();
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<Entry> entries = new ArrayList<>();
+        private final List<Integer> freeOrdinals = new ArrayList<>();
+        private final Comparator<Integer> ranking = Comparator
+                .comparingDouble((Integer ordinal) -> -entries.get(ordinal).popularity)
+                .thenComparingInt(ordinal -> entries.get(ordinal).name.length())
+                .thenComparing(ordinal -> entries.get(ordinal).name);
+        private long estimatedBytes;
+        private boolean budgetWarned;
+
+        private void put(String productId, String name) {
+            Integer existing = ordinals.get(productId);
+            double popularity = existing != null ? entries.get(existing).popularity : 0d;
+            remove(productId);
+            insert(productId, name, popularity, true);
+        }
+
+        private void insert(String productId, String name, double popularity, boolean maintainTop) {
+            String[] keys = keysOf(name);
+            if (keys.length == 0) {
+                return;
+            }
+            if (estimatedBytes > memoryBudgetBytes) {
+                if (keys.length > 1) {
+                    keys = Arrays.copyOf(keys, 1);
+                    if (!budgetWarned) {
+                        budgetWarned = true;
+                        log.warn("Autocomplete index is over its {} byte budget, indexing new products by leading name only",
+                                memoryBudgetBytes);
+                    }
+                }
+                if (estimatedBytes > memoryBudgetBytes + memoryBudgetBytes / 10) {
+                    rejectedCounter.increment();
+                    return;
+                }
+            }
+
+            int ordinal;
+            Entry entry = new Entry(productId, name, keys, popularity);
+            if (freeOrdinals.isEmpty()) {
+                ordinal = entries.size();
+                entries.add(entry);
+            } else {
+                ordinal = freeOrdinals.remove(freeOrdinals.size() - 1);
+                entries.set(ordinal, entry);
+            }
+            ordinals.put(productId, ordinal);
+            estimatedBytes += ENTRY_BYTES + 2L * name.length();
+
+            for (String key : keys) {
+                Node[] path = walk(key, true);
+                Node leaf = path[path.length - 1];
+                leaf.terminals = append(leaf.terminals, ordinal);
+                estimatedBytes += Integer.BYTES;
+                if (maintainTop) {
+                    refreshTop(path);
+                }
+            }
+        }
+
+        private void remove(String productId) {
+            Integer ordinal = ordinals.remove(productId);
+            if (ordinal == null) {
+                return;
+            }
+            Entry entry = entries.get(ordinal);
+            for (String key : entry.keys) {
+                Node[] path = walk(key, false);
+                if (path == null) {
+                    continue;
+                }
+                Node leaf = path[path.length - 1];
+                leaf.terminals = without(leaf.terminals, ordinal);
+                estimatedBytes -= Integer.BYTES;
+                for (int depth = path.length - 1; depth > 0 && path[depth].isEmpty(); depth--) {
+                    path[depth - 1].removeChild(key.charAt(depth - 1));
+                    estimatedBytes -= NODE_BYTES;
+                }
+                refreshTop(path);
+            }
+            estimatedBytes -= ENTRY_BYTES + 2L * entry.name.length();
+            entries.set(ordinal, null);
+            freeOrdinals.add(ordinal);
+        }
+
+        private void addPopularity(String productId, long quantity) {
+            Integer ordinal = ordinals.get(productId);
+            if (ordinal == null) {
+                return;
+            }
+            Entry entry = entries.get(ordinal);
+            entry.popularity = Math.max(0d, entry.popularity + quantity);
+            for (String key : entry.keys) {
+                Node[] path = walk(key, false);
+                if (path != null) {
+                    refreshTop(path);
+                }
+            }
+        }
+
+        private Node[] walk(String key, boolean create) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                Node next = path[i].child(key.charAt(i));
+                if (next == null) {
+                    if (!create) {
+                        return null;
+                    }
+                    next = path[i].addChild(key.charAt(i));
+                    estimatedBytes += NODE_BYTES;
+                }
+                path[i + 1] = next;
+            }
+            return path;
+        }
+
+        private void refreshTop(Node[] path) {
+            for (int depth = path.length - 1; depth >= 0; depth--) {
+                path[depth].top = selectTop(path[depth]);
+            }
+        }
+
+        private void computeTop(Node node) {
+            for (Node child : node.children) {
+                computeTop(child);
+            }
+            node.top = selectTop(node);
+        }
+
+        private int[] selectTop(Node node) {
+            Set<Integer> candidates = new LinkedHashSet<>();
+            for (int ordinal : node.terminals) {
+                candidates.add(ordinal);
+            }
+            for (Node child : node.children) {
+                for (int ordinal : child.top) {
+                    candidates.add(ordinal);
+                }
+            }
+            return candidates.stream()
+                    .sorted(ranking)
+                    .limit(topK)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        private String[] keysOf(String name) {
+            List<String> tokens = SearchTextNormalizer.tokenize(name);
+            int keyCount = Math.min(tokens.size(), Math.max(1, maxTokenKeys));
+            Set<String> keys = new LinkedHashSet<>();
+            for (int i = 0; i < keyCount; i++) {
+                String key = String.join(" ", tokens.subList(i, tokens.size()));
+                keys.add(key.length() > maxDepth ? key.substring(0, maxDepth) : key);
+            }
+            return keys.toArray(new String[0]);
+        }
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] grown = Arrays.copyOf(values, values.length + 1);
+        grown[values.length] = value;
+        return grown;
+    }
+
+    private static int[] without(int[] values, int value) {
+        int index = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return values;
+        }
+        int[] shrunk = new int[values.length - 1];
+        System.arraycopy(values, 0, shrunk, 0, index);
+        System.arraycopy(values, index + 1, shrunk, index, values.length - index - 1);
+        return shrunk.length == 0 ? NO_ENTRIES : shrunk;
+    }
+}
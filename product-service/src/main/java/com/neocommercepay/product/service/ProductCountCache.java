@@ -0,0 +1,39 @@
+package com.neocommercepay.product.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neocommercepay.product.document.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+public class ProductCountCache {
+
+    private static final String ALL_PRODUCTS = "";
+
+    private final AsyncLoadingCache<String, Long> counts;
+
+    public ProductCountCache(MongoTemplate mongoTemplate,
+                             @Value("${product.count.max-size:10000}") long maxSize,
+                             @Value("${product.count.refresh-seconds:30}") long refreshSeconds,
+                             @Value("${product.count.expire-minutes:10}") long expireMinutes) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .buildAsync((String categoryId) -> categoryId.isEmpty()
+                        ? mongoTemplate.estimatedCount(Product.class)
+                        : mongoTemplate.count(Query.query(Criteria.where("categoryId").is(categoryId)), Product.class));
+    }
+
+    public Long getIfComputed(String categoryId) {
+        CompletableFuture<Long> count = counts.get(categoryId != null ? categoryId : ALL_PRODUCTS);
+        return count.isDone() && !count.isCompletedExceptionally() ? count.join() : null;
+    }
+}
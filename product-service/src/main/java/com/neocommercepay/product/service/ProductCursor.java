@@ -0,0 +1,60 @@
+package com.neocommercepay.product.service;
+
+import com.neocommercepay.common.exception.BusinessException;
+import com.neocommercepay.product.document.Product;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.function.Function;
+
+public record ProductCursor(SortField sortField, Sort.Direction direction, String id, Object value) {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "n";
+    private static final String PRESENT_VALUE = "v";
+
+    public enum SortField {
+        ID("_id", Product::getId, value -> value),
+        NAME("name", Product::getName, value -> value),
+        CREATED_AT("createdAt", Product::getCreatedAt, LocalDateTime::parse);
+
+        private final String field;
+        private final Function<Product, Object> extractor;
+        private final Function<String, Object> parser;
+
+        SortField(String field, Function<Product, Object> extractor, Function<String, Object> parser) {
+            this.field = field;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+
+        public String getField() {
+            return field;
+        }
+    }
+
+    public static ProductCursor of(Product product, SortField sortField, Sort.Direction direction) {
+        return new ProductCursor(sortField, direction, product.getId(), sortField.extractor.apply(product));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            SortField sortField = SortField.valueOf(parts[0]);
+            Object value = parts[3].startsWith(NULL_VALUE) ? null : sortField.parser.apply(parts[3].substring(1));
+            return new ProductCursor(sortField, Sort.Direction.valueOf(parts[1]), parts[2], value);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR
+                + (value == null ? NULL_VALUE : PRESENT_VALUE + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package com.neocommercepay.product.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.neocommercepay.product.document.Product;
+import com.neocommercepay.product.repository.ProductListingRepository;
+import com.neocommercepay.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class ProductReadCache {
+
+    private static final int BASE_WEIGHT = 96;
+
+    private final LoadingCache<String, Product> products;
+    private final LoadingCache<ProductListingRepository.Listing, List<Product>> pages;
+
+    public ProductReadCache(ProductRepository productRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${product.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+                            @Value("${product.cache.pages.max-size:1000}") long maxPages,
+                            @Value("${product.cache.ttl-seconds:600}") long ttlSeconds,
+                            @Value("${product.cache.refresh-seconds:60}") long refreshSeconds,
+                            @Value("${product.cache.pages.ttl-seconds:60}") long pageTtlSeconds,
+                            @Value("${product.cache.pages.refresh-seconds:10}") long pageRefreshSeconds) {
+        this.products = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String id, Product product) -> weigh(product))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .recordStats()
+                .build(id -> productRepository.findById(id).orElse(null));
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(Duration.ofSeconds(pageTtlSeconds))
+                .refreshAfterWrite(Duration.ofSeconds(pageRefreshSeconds))
+                .recordStats()
+                .build((ProductListingRepository.Listing listing) -> productRepository.findListing(listing));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "product-pages");
+        Gauge.builder("product.cache.hit.ratio", products, cache -> cache.stats().hitRate())
+                .tag("cache", "products")
+                .register(meterRegistry);
+        Gauge.builder("product.cache.hit.ratio", pages, cache -> cache.stats().hitRate())
+                .tag("cache", "product-pages")
+                .register(meterRegistry);
+    }
+
+    public Optional<Product> get(String productId) {
+        return Optional.ofNullable(products.get(productId));
+    }
+
+    public List<Product> getListing(ProductListingRepository.Listing listing) {
+        return pages.get(listing);
+    }
+
+    public void invalidate(String productId) {
+        products.invalidate(productId);
+        pages.invalidateAll();
+    }
+
+    private static int weigh(Product product) {
+        return BASE_WEIGHT + 2 * (length(product.getId()) + length(product.getName()) + length(product.getDescription())
+                + length(product.getCategoryId()) + length(product.getCategoryName()));
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,349 @@
+package com.neocommercepay.product.service;
+
+import com.neocommercepay.product.document.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private final MongoTemplate mongoTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BlockingQueue<Accumulator> accumulators;
+    private final Timer searchTimer;
+
+    @Value("${product.search.max-result-window:10000}")
+    private int maxResultWindow;
+
+    @Value("${product.search.compaction-ratio:0.25}")
+    private double compactionRatio;
+
+    private Segment segment = new Segment();
+    private List<Entry> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                              @Value("${product.search.max-concurrent-queries:8}") int maxConcurrentQueries) {
+        this.mongoTemplate = mongoTemplate;
+        this.accumulators = new ArrayBlockingQueue<>(Math.max(1, maxConcurrentQueries));
+        for (int i = 0; i < Math.max(1, maxConcurrentQueries); i++) {
+            accumulators.add(new Accumulator());
+        }
+        this.searchTimer = meterRegistry.timer("product.search");
+        Gauge.builder("product.search.index.documents", this, ProductSearchIndex::liveDocuments)
+                .register(meterRegistry);
+    }
+
+    public record SearchHits(List<String> productIds, long total) {
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Product product) {
+        index(product.getId(), product.getName(), product.getDescription(), product.getCategoryName());
+    }
+
+    public void index(String productId, String name, String description, String categoryName) {
+        apply(new Entry(productId, name, description, categoryName));
+    }
+
+    public void remove(String productId) {
+        apply(new Entry(productId, null, null, null));
+    }
+
+    public SearchHits search(String query, int page, int size) {
+        Set<String> terms = new LinkedHashSet<>(SearchTextNormalizer.tokenize(query));
+        int window = Math.min((page + 1) * size, maxResultWindow);
+        if (terms.isEmpty() || page * size >= window) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        long started = System.nanoTime();
+        Accumulator accumulator = borrowAccumulator();
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            accumulator.ensureCapacity(current.size);
+            try {
+                float averageLength = current.averageLength();
+                for (String term : terms) {
+                    Postings postings = current.terms.get(term);
+                    if (postings != null) {
+                        score(current, postings, averageLength, accumulator);
+                    }
+                }
+                return new SearchHits(topHits(current, accumulator, page * size, window), accumulator.count);
+            } finally {
+                accumulator.clear();
+            }
+        } finally {
+            lock.readLock().unlock();
+            accumulators.offer(accumulator);
+            searchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${product.search.maintenance-interval-ms:60000}")
+    public void maintain() {
+        int size;
+        int live;
+        lock.readLock().lock();
+        try {
+            size = segment.size;
+            live = segment.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!ready || size - live > Math.max(1000, size * compactionRatio)) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Segment fresh = new Segment();
+        try {
+            Query query = new Query();
+            query.fields().include("name", "description", "categoryName");
+            try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+                products.forEach(product -> fresh.add(new Entry(product.getId(), product.getName(),
+                        product.getDescription(), product.getCategoryName())));
+            }
+        } catch (Exception e) {
+            log.error("Failed to build product search index", e);
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(fresh::apply);
+            changesDuringRebuild = null;
+            segment = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built product search index: {} products, {} terms in {} ms",
+                fresh.live, fresh.terms.size(), System.currentTimeMillis() - started);
+    }
+
+    private void apply(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            segment.apply(entry);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int liveDocuments() {
+        lock.readLock().lock();
+        try {
+            return segment.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Accumulator borrowAccumulator() {
+        try {
+            return accumulators.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to run a product search", e);
+        }
+    }
+
+    private static void score(Segment segment, Postings postings, float averageLength, Accumulator accumulator) {
+        int documentFrequency = Math.min(postings.size, Math.max(1, segment.live));
+        float idf = (float) Math.log(1 + (segment.live - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        for (int i = 0; i < postings.size; i++) {
+            int document = postings.documents[i];
+            if (segment.deleted.get(document)) {
+                continue;
+            }
+            float tf = postings.frequencies[i];
+            float norm = K1 * (1 - B + B * segment.lengths[document] / averageLength);
+            accumulator.add(document, idf * tf * (K1 + 1) / (tf + norm));
+        }
+    }
+
+    private static List<String> topHits(Segment segment, Accumulator accumulator, int offset, int window) {
+        float[] scores = accumulator.scores;
+        PriorityQueue<Integer> heap = new PriorityQueue<>(window + 1, (left, right) -> {
+            int byScore = Float.compare(scores[left], scores[right]);
+            return byScore != 0 ? byScore : Integer.compare(right, left);
+        });
+        for (int i = 0; i < accumulator.count; i++) {
+            heap.offer(accumulator.touched[i]);
+            if (heap.size() > window) {
+                heap.poll();
+            }
+        }
+
+        String[] ranked = new String[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = segment.ids[heap.poll()];
+        }
+        return offset >= ranked.length ? List.of() : Arrays.asList(ranked).subList(offset, ranked.length);
+    }
+
+    private record Entry(String productId, String name, String description, String categoryName) {
+
+        private boolean isRemoval() {
+            return name == null && description == null && categoryName == null;
+        }
+    }
+
+    private static final class Segment {
+        private final Map<String, Postings> terms = new HashMap<>();
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final BitSet deleted = new BitSet();
+        private String[] ids = new String[1024];
+        private float[] lengths = new float[1024];
+        private int size;
+        private int live;
+        private double totalLength;
+
+        private void apply(Entry entry) {
+            if (entry.isRemoval()) {
+                remove(entry.productId());
+            } else {
+                add(entry);
+            }
+        }
+
+        private void add(Entry entry) {
+            remove(entry.productId());
+
+            Map<String, Float> frequencies = new HashMap<>();
+            float length = addField(frequencies, entry.name(), NAME_WEIGHT)
+                    + addField(frequencies, entry.categoryName(), CATEGORY_WEIGHT)
+                    + addField(frequencies, entry.description(), DESCRIPTION_WEIGHT);
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            int ordinal = size++;
+            frequencies.forEach((term, frequency) ->
+                    terms.computeIfAbsent(term, key -> new Postings()).add(ordinal, frequency));
+            ids[ordinal] = entry.productId();
+            lengths[ordinal] = length;
+            ordinals.put(entry.productId(), ordinal);
+            live++;
+            totalLength += length;
+        }
+
+        private void remove(String productId) {
+            Integer ordinal = ordinals.remove(productId);
+            if (ordinal != null) {
+                deleted.set(ordinal);
+                live--;
+                totalLength -= lengths[ordinal];
+            }
+        }
+
+        private float averageLength() {
+            return live == 0 ? 1f : (float) (totalLength / live);
+        }
+
+        private static float addField(Map<String, Float> frequencies, String text, float weight) {
+            List<String> tokens = SearchTextNormalizer.tokenize(text);
+            tokens.forEach(token -> frequencies.merge(token, weight, Float::sum));
+            return tokens.size() * weight;
+        }
+    }
+
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        private void add(int document, float frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size++] = frequency;
+        }
+    }
+
+    private static final class Accumulator {
+        private float[] scores = new float[0];
+        private int[] touched = new int[256];
+        private int count;
+
+        private void ensureCapacity(int documents) {
+            if (scores.length < documents) {
+                scores = new float[Math.max(documents, scores.length * 2)];
+            }
+        }
+
+        private void add(int document, float score) {
+            if (scores[document] == 0f) {
+                if (count == touched.length) {
+                    touched = Arrays.copyOf(touched, count * 2);
+                }
+                touched[count++] = document;
+            }
+            scores[document] += score;
+        }
+
+        private void clear() {
+            for (int i = 0; i < count; i++) {
+                scores[touched[i]] = 0f;
+            }
+            count = 0;
+        }
+    }
+}
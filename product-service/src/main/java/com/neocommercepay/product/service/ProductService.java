@@ -1,17 +1,28 @@
 package com.neocommercepay.product.service;
 
+import com.neocommercepay.common.dto.product.ProductPageResponse;
+import com.neocommercepay.common.dto.product.ProductResponse;
+import com.neocommercepay.common.dto.product.ProductSuggestionResponse;
 import com.neocommercepay.common.exception.NotFoundException;
 import com.neocommercepay.product.document.Product;
 import com.neocommercepay.product.event.ProductEventProducer;
+import com.neocommercepay.product.repository.ProductListingRepository;
 import com.neocommercepay.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,11 +31,24 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductEventProducer productEventProducer;
+    private final ProductReadCache productReadCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductAutocompleteIndex productAutocompleteIndex;
+    private final ProductCountCache productCountCache;
+
+    @Value("${product.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${product.pagination.max-page-size:100}")
+    private int maxPageSize;
 
     public Product createProduct(Product product) {
         product.setCreatedAt(LocalDateTime.now());
         product.setUpdatedAt(LocalDateTime.now());
         Product savedProduct = productRepository.save(product);
+        productReadCache.invalidate(savedProduct.getId());
+        productSearchIndex.index(savedProduct);
+        productAutocompleteIndex.put(savedProduct);
 
         productEventProducer.publishProductCreated(savedProduct);
         log.info("Product created: {}", savedProduct.getName());
@@ -33,24 +57,43 @@ public class ProductService {
     }
 
     public Product getProductById(String id) {
-        return productRepository.findById(id)
+        return productReadCache.get(id)
                 .orElseThrow(() -> new NotFoundException("Product not found with id: " + id));
     }
 
-    public Page<Product> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable);
+    public ProductPageResponse getAllProducts(String cursor, Integer size, ProductCursor.SortField sortField,
+                                              Sort.Direction direction, boolean includeTotal) {
+        return listProducts(null, cursor, size, sortField, direction, includeTotal);
+    }
+
+    public List<ProductSuggestionResponse> suggestProducts(String prefix, int limit) {
+        return productAutocompleteIndex.suggest(prefix, limit);
     }
 
-    public Page<Product> getProductsByCategory(String categoryId, Pageable pageable) {
-        return productRepository.findByCategoryId(categoryId, pageable);
+    public ProductPageResponse getProductsByCategory(String categoryId, String cursor, Integer size,
+                                                     ProductCursor.SortField sortField, Sort.Direction direction,
+                                                     boolean includeTotal) {
+        return listProducts(categoryId, cursor, size, sortField, direction, includeTotal);
     }
 
-    public List<Product> searchProducts(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+    public Page<Product> searchProducts(String query, Pageable pageable) {
+        if (!productSearchIndex.isReady()) {
+            return productRepository.findByNameContainingIgnoreCase(query, pageable);
+        }
+
+        ProductSearchIndex.SearchHits hits = productSearchIndex.search(query, pageable.getPageNumber(), pageable.getPageSize());
+        Map<String, Product> products = new HashMap<>();
+        productRepository.findAllById(hits.productIds()).forEach(product -> products.put(product.getId(), product));
+
+        List<Product> ranked = hits.productIds().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(ranked, pageable, hits.total());
     }
 
     public Product updateProduct(String id, Product productDetails) {
-        Product product = getProductById(id);
+        Product product = findProduct(id);
 
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
@@ -61,15 +104,64 @@ public class ProductService {
         product.setUpdatedAt(LocalDateTime.now());
 
         Product updatedProduct = productRepository.save(product);
+        productReadCache.invalidate(id);
+        productSearchIndex.index(updatedProduct);
+        productAutocompleteIndex.put(updatedProduct);
         productEventProducer.publishProductUpdated(updatedProduct);
 
         return updatedProduct;
     }
 
     public void deleteProduct(String id) {
-        Product product = getProductById(id);
+        Product product = findProduct(id);
         productRepository.delete(product);
+        productReadCache.invalidate(id);
+        productSearchIndex.remove(id);
+        productAutocompleteIndex.remove(id);
         productEventProducer.publishProductDeleted(id);
         log.info("Product deleted: {}", id);
     }
+
+    private ProductPageResponse listProducts(String categoryId, String cursor, Integer size,
+                                             ProductCursor.SortField sortField, Sort.Direction direction,
+                                             boolean includeTotal) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        ProductCursor after = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+        if (after != null) {
+            sortField = after.sortField();
+            direction = after.direction();
+        }
+
+        List<Product> products = productReadCache.getListing(new ProductListingRepository.Listing(
+                categoryId, sortField.getField(), direction,
+                after != null ? after.id() : null, after != null ? after.value() : null, pageSize + 1));
+
+        boolean hasMore = products.size() > pageSize;
+        if (hasMore) {
+            products = products.subList(0, pageSize);
+        }
+
+        return ProductPageResponse.builder()
+                .products(products.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? ProductCursor.of(products.get(products.size() - 1), sortField, direction).encode() : null)
+                .hasMore(hasMore)
+                .totalCount(includeTotal ? productCountCache.getIfComputed(categoryId) : null)
+                .build();
+    }
+
+    private ProductResponse mapToResponse(Product product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .category(product.getCategoryName())
+                .stockQuantity(product.getStockQuantity())
+                .build();
+    }
+
+    private Product findProduct(String id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Product not found with id: " + id));
+    }
 }
@@ -0,0 +1,59 @@
+package com.neocommercepay.product.service;
+
+import com.neocommercepay.product.document.StockReservation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Slf4j
+public class StockReservationSweeper {
+
+    private final InventoryService inventoryService;
+    private final Counter expiredCounter;
+    private final Counter failedCounter;
+
+    @Value("${inventory.reservation.sweep-batch-size:200}")
+    private int batchSize;
+
+    @Value("${inventory.reservation.sweep-max-batches:50}")
+    private int maxBatches;
+
+    public StockReservationSweeper(InventoryService inventoryService, MeterRegistry meterRegistry) {
+        this.inventoryService = inventoryService;
+        this.expiredCounter = meterRegistry.counter("inventory.reservation.expired");
+        this.failedCounter = meterRegistry.counter("inventory.reservation.expiry.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:30000}")
+    public void sweep() {
+        int expired = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<StockReservation> reservations = inventoryService.findExpiredReservations(batchSize);
+            int failed = 0;
+            for (StockReservation reservation : reservations) {
+                try {
+                    inventoryService.releaseReservation(reservation.getOrderId(), StockReservation.Status.EXPIRED);
+                    expired++;
+                } catch (Exception e) {
+                    failed++;
+                    log.error("Failed to expire stock reservation for order {}", reservation.getOrderId(), e);
+                }
+            }
+            failedCounter.increment(failed);
+            if (reservations.size() < batchSize || failed > 0) {
+                break;
+            }
+        }
+
+        if (expired > 0) {
+            expiredCounter.increment(expired);
+            log.info("Expired {} abandoned stock reservations", expired);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.Inventory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InventoryHoldConcurrencyTest extends InventoryMongoTestSupport {
+
+    private static final int STOCK = 1_000;
+    private static final int ATTEMPTS = 5_000;
+    private static final int THREADS = 64;
+
+    @Test
+    void parallelHoldsNeverOversell() throws Exception {
+        InventoryStockRepositoryImpl repository = new InventoryStockRepositoryImpl(mongoTemplate);
+        mongoTemplate.insert(inventory("contended-sku", STOCK));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int granted = 0;
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Set<String>>> attempts = new ArrayList<>();
+            for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+                String holdKey = String.valueOf(attempt);
+                attempts.add(executor.submit((Callable<Set<String>>) () -> {
+                    start.await();
+                    return repository.applyHolds(holdKey, Map.of("contended-sku", 1));
+                }));
+            }
+            start.countDown();
+            for (Future<Set<String>> attempt : attempts) {
+                granted += attempt.get().size();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Inventory after = find("contended-sku");
+        assertThat(granted).isEqualTo(STOCK);
+        assertThat(after.getAvailableQuantity()).isZero();
+        assertThat(after.getReservedQuantity()).isEqualTo(STOCK);
+        assertThat(after.getQuantity()).isEqualTo(STOCK);
+        assertThat(after.getHolds()).hasSize(STOCK);
+        assertThat(after.getHoldCount()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void repeatedHoldForTheSameOrderIsAppliedOnce() {
+        InventoryStockRepositoryImpl repository = new InventoryStockRepositoryImpl(mongoTemplate);
+        mongoTemplate.insert(inventory("retried-sku", STOCK));
+
+        assertThat(repository.applyHolds("order-1", Map.of("retried-sku", 3))).containsExactly("retried-sku");
+        assertThat(repository.applyHolds("order-1", Map.of("retried-sku", 3))).containsExactly("retried-sku");
+        assertThat(find("retried-sku").getAvailableQuantity()).isEqualTo(STOCK - 3);
+        assertThat(find("retried-sku").getHoldCount()).isEqualTo(1);
+        assertThat(repository.releaseHolds("order-1", Map.of("retried-sku", 3))).isEqualTo(1);
+        assertThat(repository.releaseHolds("order-1", Map.of("retried-sku", 3))).isZero();
+
+        assertThat(find("retried-sku").getAvailableQuantity()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void nonPositiveQuantitiesAreRejected() {
+        InventoryStockRepositoryImpl repository = new InventoryStockRepositoryImpl(mongoTemplate);
+        mongoTemplate.insert(inventory("negative-sku", STOCK));
+
+        assertThatThrownBy(() -> repository.applyHolds("order-2", Map.of("negative-sku", -5)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> repository.applyHolds("order-3", Map.of("negative-sku", 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(find("negative-sku").getAvailableQuantity()).isEqualTo(STOCK);
+    }
+}
@@ -0,0 +1,55 @@
+package com.neocommercepay.product.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.neocommercepay.product.document.Inventory;
+import com.neocommercepay.product.document.InventoryShard;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+@Testcontainers(disabledWithoutDocker = true)
+abstract class InventoryMongoTestSupport {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    protected static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl("inventory_test"));
+        mongoTemplate = new MongoTemplate(client, "inventory_test");
+        mongoTemplate.indexOps(Inventory.class).ensureIndex(new Index("productId", Sort.Direction.ASC).unique());
+        mongoTemplate.indexOps(InventoryShard.class).ensureIndex(new Index("productId", Sort.Direction.ASC));
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+    }
+
+    protected static Inventory find(String productId) {
+        return mongoTemplate.findOne(Query.query(Criteria.where("productId").is(productId)), Inventory.class);
+    }
+
+    protected static Inventory inventory(String productId, int stock) {
+        return Inventory.builder()
+                .productId(productId)
+                .quantity(stock)
+                .reservedQuantity(0)
+                .availableQuantity(stock)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+}
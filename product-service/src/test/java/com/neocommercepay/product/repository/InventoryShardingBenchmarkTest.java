@@ -0,0 +1,104 @@
+package com.neocommercepay.product.repository;
+
+import com.neocommercepay.product.document.Inventory;
+import com.neocommercepay.product.document.InventoryShard;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@Slf4j
+class InventoryShardingBenchmarkTest extends InventoryMongoTestSupport {
+
+    private static final int THREADS = 32;
+    private static final int OPERATIONS_PER_THREAD = 500;
+    private static final int SHARDS = 8;
+    private static final int STOCK = 1_000_000;
+
+    @Test
+    void compareShardedCountersWithSingleDocumentUnderContention() throws Exception {
+        InventoryStockRepositoryImpl single = new InventoryStockRepositoryImpl(mongoTemplate);
+        InventoryShardStockRepositoryImpl sharded = new InventoryShardStockRepositoryImpl(mongoTemplate);
+        mongoTemplate.insert(inventory("single-sku", STOCK));
+        sharded.createShards("sharded-sku", SHARDS);
+        sharded.creditTransfer("seed", split("sharded-sku"));
+
+        run(holdKey -> {
+            single.applyHolds("warmup-" + holdKey, Map.of("single-sku", 1));
+            single.releaseHolds("warmup-" + holdKey, Map.of("single-sku", 1));
+        });
+        long singleNanos = run(holdKey -> {
+            single.applyHolds(holdKey, Map.of("single-sku", 1));
+            single.releaseHolds(holdKey, Map.of("single-sku", 1));
+        });
+        long shardedNanos = run(holdKey -> {
+            String shardId = InventoryShard.idOf("sharded-sku", ThreadLocalRandom.current().nextInt(SHARDS));
+            sharded.applyHold(shardId, holdKey, 1);
+            sharded.releaseHolds(holdKey, Map.of("sharded-sku", 1));
+        });
+
+        int operations = THREADS * OPERATIONS_PER_THREAD;
+        log.info("Single document: {} hold/release pairs in {} ms ({} ops/s)", operations,
+                TimeUnit.NANOSECONDS.toMillis(singleNanos), Math.round(operations * 1e9 / singleNanos));
+        log.info("{} shards: {} hold/release pairs in {} ms ({} ops/s)", SHARDS, operations,
+                TimeUnit.NANOSECONDS.toMillis(shardedNanos), Math.round(operations * 1e9 / shardedNanos));
+
+        Inventory after = find("single-sku");
+        assertThat(after.getAvailableQuantity()).isEqualTo(STOCK);
+        assertThat(after.getReservedQuantity()).isZero();
+        assertThat(sharded.sumByProduct(List.of("sharded-sku")).get("sharded-sku").availableQuantity()).isEqualTo(STOCK);
+    }
+
+    private static long run(Operation operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> workers = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int worker = thread;
+                workers.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operation.run(worker + "-" + i);
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<Void> worker : workers) {
+                worker.get();
+            }
+            return System.nanoTime() - started;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<String, Integer> split(String productId) {
+        Map<String, Integer> split = new LinkedHashMap<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            split.put(InventoryShard.idOf(productId, shard), STOCK / SHARDS);
+        }
+        return split;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(String holdKey);
+    }
+}
@@ -0,0 +1,15 @@
+-- Moves the order-service id sequences past ids issued by the former IDENTITY columns.
+-- Idempotent: a sequence is only advanced when the table already holds ids at or beyond it.
+-- Run against neocommercepay_orders; order-service also performs this check on startup.
+
+SELECT setval('orders_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM orders) m
+WHERE m.max_id IS NOT NULL AND m.max_id >= (SELECT last_value FROM orders_seq);
+
+SELECT setval('order_items_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM order_items) m
+WHERE m.max_id IS NOT NULL AND m.max_id >= (SELECT last_value FROM order_items_seq);
+
+SELECT setval('order_status_history_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM order_status_history) m
+WHERE m.max_id IS NOT NULL AND m.max_id >= (SELECT last_value FROM order_status_history_seq);
+
+SELECT setval('order_outbox_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM order_outbox) m
+WHERE m.max_id IS NOT NULL AND m.max_id >= (SELECT last_value FROM order_outbox_seq);